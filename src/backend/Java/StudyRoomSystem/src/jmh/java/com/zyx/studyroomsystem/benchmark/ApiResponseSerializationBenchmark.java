@@ -0,0 +1,71 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyx.studyroomsystem.booking.BookingStates;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.web.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse&lt;List&lt;Booking&gt;&gt; 的 Jackson 序列化耗时（如 GET /api/v1/booking/my 的响应体）。
+ * ObjectMapper 与 Spring MVC 使用的配置一致（Jackson2ObjectMapperBuilder 默认值）。
+ *
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="ApiResponseSerializationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Booking>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        UUID userId = UUID.randomUUID();
+        OffsetDateTime start = OffsetDateTime.now();
+        List<Booking> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Booking booking = new Booking();
+            booking.setId(UUID.randomUUID());
+            booking.setUserId(userId);
+            booking.setSeatId(UUID.randomUUID());
+            booking.setCreateTime(start);
+            booking.setStartTime(start.plusHours(i));
+            booking.setEndTime(start.plusHours(i + 1));
+            booking.setState(BookingStates.CONFIRMED);
+            bookings.add(booking);
+        }
+        response = ApiResponse.ok(bookings);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,146 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import com.zyx.studyroomsystem.booking.BookingExportWriter;
+import com.zyx.studyroomsystem.booking.BookingMetrics;
+import com.zyx.studyroomsystem.booking.BookingProperties;
+import com.zyx.studyroomsystem.booking.BookingStates;
+import com.zyx.studyroomsystem.booking.NoShowReleaser;
+import com.zyx.studyroomsystem.booking.SeatBookingIndex;
+import com.zyx.studyroomsystem.exception.ResourceConflictException;
+import com.zyx.studyroomsystem.mapper.BlacklistMapper;
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.mapper.ViolationMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.service.SeatService;
+import com.zyx.studyroomsystem.service.impl.BookingServiceImpl;
+import com.zyx.studyroomsystem.violation.ViolationLedger;
+import com.zyx.studyroomsystem.violation.ViolationProperties;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookingServiceImpl.addBooking 的冲突检测耗时随座位上有效预约数量的变化（INDEX 模式）。
+ *
+ * 座位上预先有 history 条首尾相接的未来预约，首次访问时由桩 Mapper 懒加载进区间索引。
+ * - conflict：与中间某条预约重叠，被索引拒绝（ResourceConflictException）
+ * - accept：排在所有预约之后，占用成功后立即从索引移除，保持规模不变
+ * 插入语句由桩 Mapper 执行（空操作），只测量应用层的准入开销。
+ *
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="BookingAdmissionBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingAdmissionBenchmark {
+
+    @Param({"1", "1000", "10000", "100000"})
+    public int history;
+
+    private BookingServiceImpl bookingService;
+    private SeatBookingIndex seatBookingIndex;
+    private UUID userId;
+    private UUID seatId;
+    private OffsetDateTime firstStart;
+    private OffsetDateTime afterLast;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userId = UUID.randomUUID();
+        seatId = UUID.randomUUID();
+        firstStart = OffsetDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+        List<Booking> existing = new ArrayList<>(history);
+        OffsetDateTime start = firstStart;
+        for (int i = 0; i < history; i++) {
+            existing.add(booking(start, start.plusHours(1)));
+            start = start.plusHours(1);
+        }
+        afterLast = start;
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookingMapper bookingMapper = Stubs.of(BookingMapper.class,
+                Map.of("selectActiveBookingsBySeatIdEndingAfter", existing));
+        BookingProperties properties = new BookingProperties(
+                new BookingProperties.Admission(BookingProperties.AdmissionMode.INDEX, 64),
+                new BookingProperties.NoShow(false, Duration.ofMinutes(15), 500),
+                new BookingProperties.Closeout(false, "0 0 22 * * *", "Asia/Shanghai", 1000));
+        ViolationLedger violationLedger = new ViolationLedger(Stubs.of(ViolationMapper.class),
+                Stubs.of(BlacklistMapper.class),
+                new ViolationProperties(3, Duration.ofDays(30), Duration.ofDays(7)), registry);
+        seatBookingIndex = new SeatBookingIndex(bookingMapper, properties);
+        NoShowReleaser noShowReleaser = new NoShowReleaser(bookingMapper, seatBookingIndex, violationLedger,
+                event -> { }, properties, registry);
+        Seat seat = new Seat();
+        seat.setId(seatId);
+        SeatService seatService = Stubs.of(SeatService.class, Map.of("getSeatById", seat));
+        bookingService = new BookingServiceImpl(bookingMapper, seatBookingIndex, seatService, properties,
+                emptyProvider(), new BookingExportWriter(Jackson2ObjectMapperBuilder.json().build()), noShowReleaser,
+                violationLedger, event -> { }, new BookingMetrics(registry));
+
+        // 触发懒加载
+        seatBookingIndex.hasOverlap(seatId, firstStart.toInstant(), firstStart.toInstant());
+    }
+
+    @Benchmark
+    public boolean conflict() {
+        OffsetDateTime start = firstStart.plusHours(history / 2).plusMinutes(30);
+        try {
+            bookingService.addBooking(booking(start, start.plusHours(1)));
+            return true;
+        } catch (ResourceConflictException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public UUID accept() {
+        Booking booking = booking(afterLast, afterLast.plusHours(1));
+        bookingService.addBooking(booking);
+        seatBookingIndex.release(booking.getId());
+        return booking.getId();
+    }
+
+    private Booking booking(OffsetDateTime start, OffsetDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(UlidToUuidConverter.generateUuidFromUlid());
+        booking.setUserId(userId);
+        booking.setSeatId(seatId);
+        booking.setCreateTime(OffsetDateTime.now());
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setState(BookingStates.CONFIRMED);
+        return booking;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> emptyProvider() {
+        return Stubs.of(ObjectProvider.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.security.JwtUtil;
+import com.zyx.studyroomsystem.security.SecurityUser;
+import com.zyx.studyroomsystem.security.TokenClaims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 校验吞吐量（tokens/s）：旧实现 vs 单次解析。
+ *
+ * legacy 复刻改造前 JwtAuthenticationFilter 的调用序列：
+ * extractUsername + validateToken（内部再 extractUsername + isTokenExpired），
+ * 共 3 次解析验签，且每次都重新构建 Key 和解析器。
+ * singleParse 使用 JwtUtil.parseToken，预构建的解析器只解析验签一次。
+ *
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="JwtParseBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtParseBenchmark {
+
+    private static final String SECRET = "yourSecretKeyyourSecretKeyyourSecretKey";
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String username;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUserName("bench");
+        user.setRole("USER");
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(new SecurityUser(user));
+        username = user.getUserName();
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        String subject = legacyExtractUsername(token);
+        return subject.equals(username)
+                && legacyExtractUsername(token).equals(username)
+                && !legacyIsTokenExpired(token);
+    }
+
+    @Benchmark
+    public TokenClaims singleParse() {
+        return jwtUtil.parseToken(token);
+    }
+
+    private static Key legacySigningKey() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    private static String legacyExtractUsername(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacySigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    private static boolean legacyIsTokenExpired(String token) {
+        Date expiration = Jwts.parserBuilder()
+                .setSigningKey(legacySigningKey())
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getExpiration();
+        return expiration.before(new Date());
+    }
+}
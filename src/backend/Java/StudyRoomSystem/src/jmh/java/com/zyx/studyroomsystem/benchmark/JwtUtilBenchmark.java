@@ -0,0 +1,58 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.security.JwtUtil;
+import com.zyx.studyroomsystem.security.SecurityUser;
+import com.zyx.studyroomsystem.security.TokenClaims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil 单次操作耗时：登录时签发 Token（generate），每个请求校验 Token（parse）。
+ *
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="JwtUtilBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private SecurityUser principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUserName("bench");
+        user.setRole("USER");
+        principal = new SecurityUser(user);
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public TokenClaims parse() {
+        return jwtUtil.parseToken(token);
+    }
+}
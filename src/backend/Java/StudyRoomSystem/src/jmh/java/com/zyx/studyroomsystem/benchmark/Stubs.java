@@ -0,0 +1,42 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试用的接口桩：不连接数据库，按方法名返回预设值，其余方法返回类型默认值
+ * （集合为空、boolean 为 false、数值为 0、对象为 null）。
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static <T> T of(Class<T> type) {
+        return of(type, Map.of());
+    }
+
+    static <T> T of(Class<T> type, Map<String, Object> results) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (results.containsKey(method.getName())) {
+                        return results.get(method.getName());
+                    }
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == List.class) {
+                        return List.of();
+                    }
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == int.class || returnType == long.class) {
+                        return returnType == int.class ? (Object) 0 : (Object) 0L;
+                    }
+                    if (method.getName().equals("toString")) {
+                        return type.getSimpleName() + "Stub";
+                    }
+                    return null;
+                }));
+    }
+}
@@ -0,0 +1,46 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UlidToUuidConverter.generateUuidFromUlid 的吞吐量（ids/s），单线程与 8 线程竞争对比。
+ * 所有线程共用同一个 ULID 生成器及其随机数源；randomUuid 为 UUID.randomUUID 的对照组。
+ *
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="UlidGenerationBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UlidGenerationBenchmark {
+
+    @Benchmark
+    @Threads(1)
+    public UUID ulidSingleThread() {
+        return UlidToUuidConverter.generateUuidFromUlid();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID ulidContended() {
+        return UlidToUuidConverter.generateUuidFromUlid();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID randomUuidContended() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,67 @@
+package com.zyx.studyroomsystem.benchmark;
+
+import com.zyx.studyroomsystem.handler.UUIDTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UUIDTypeHandler 参数绑定与结果读取的耗时。
+ *
+ * PreparedStatement / ResultSet 为动态代理桩，baseline 直接调用同一个桩的 getObject，
+ * 与 read 的差值即为类型处理器本身的开销。
+ *
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="UuidTypeHandlerBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidTypeHandlerBenchmark {
+
+    private UUIDTypeHandler handler;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private UUID value;
+
+    @Setup
+    public void setUp() {
+        value = UUID.randomUUID();
+        handler = new UUIDTypeHandler();
+        statement = Stubs.of(PreparedStatement.class);
+        resultSet = Stubs.of(ResultSet.class, Map.of("getObject", value));
+    }
+
+    @Benchmark
+    public Object baseline() throws SQLException {
+        return resultSet.getObject("id");
+    }
+
+    @Benchmark
+    public UUID read() throws SQLException {
+        return handler.getNullableResult(resultSet, "id");
+    }
+
+    @Benchmark
+    public PreparedStatement bind() throws SQLException {
+        handler.setNonNullParameter(statement, 1, value, JdbcType.OTHER);
+        return statement;
+    }
+}
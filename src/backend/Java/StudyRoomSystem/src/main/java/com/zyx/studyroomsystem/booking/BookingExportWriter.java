@@ -0,0 +1,89 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+/**
+ * 把预约记录逐行写到输出流（CSV / NDJSON）。
+ *
+ * 只持有当前一行，内存占用与导出行数无关；
+ * 每 {@link #FLUSH_EVERY} 行刷新一次，客户端可以边下载边处理。
+ */
+@Component
+public class BookingExportWriter {
+
+    /** 每写入多少行刷新一次输出流 */
+    static final int FLUSH_EVERY = 1000;
+
+    private static final String CSV_HEADER =
+            "id,user_id,seat_id,create_time,start_time,end_time,check_in_time,check_out_time,state\n";
+
+    private final ObjectMapper objectMapper;
+
+    public BookingExportWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 写出全部记录，不关闭输出流
+     *
+     * @return 写出的行数（不含表头）
+     */
+    public long write(Iterable<Booking> bookings, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        long rows = 0;
+        for (Booking b : bookings) {
+            if (format == ExportFormat.CSV) {
+                writeCsvRow(writer, b);
+            } else {
+                writer.write(objectMapper.writeValueAsString(b));
+                writer.write('\n');
+            }
+            if (++rows % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvRow(Writer w, Booking b) throws IOException {
+        // 各列均为 UUID、时间戳或状态枚举，不含逗号/引号，无需转义
+        w.write(String.valueOf(b.getId()));
+        w.write(',');
+        w.write(String.valueOf(b.getUserId()));
+        w.write(',');
+        w.write(String.valueOf(b.getSeatId()));
+        w.write(',');
+        writeTime(w, b.getCreateTime());
+        w.write(',');
+        writeTime(w, b.getStartTime());
+        w.write(',');
+        writeTime(w, b.getEndTime());
+        w.write(',');
+        writeTime(w, b.getCheckInTime());
+        w.write(',');
+        writeTime(w, b.getCheckOutTime());
+        w.write(',');
+        w.write(b.getState() == null ? "" : b.getState());
+        w.write('\n');
+    }
+
+    private static void writeTime(Writer w, OffsetDateTime t) throws IOException {
+        if (t != null) {
+            w.write(t.toString());
+        }
+    }
+}
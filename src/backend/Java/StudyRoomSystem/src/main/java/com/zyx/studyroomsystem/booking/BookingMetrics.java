@@ -0,0 +1,57 @@
+package com.zyx.studyroomsystem.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * 预约业务计数：创建成功、冲突拒绝（按判定位置区分）、签到。
+ * 未签到释放见 {@link NoShowReleaser} 的 booking.noshow.released。
+ *
+ * 注意：创建计数不能命名为 booking.created，Prometheus 会把 _created 后缀当作保留后缀去掉。
+ */
+@Component
+public class BookingMetrics {
+
+    /** 冲突的判定位置 */
+    public enum ConflictSource {
+        /** 内存区间索引预检（INDEX 模式） */
+        INDEX,
+        /** 分段锁内查库检查（STRIPED 模式） */
+        STRIPED,
+        /** 数据库排他约束 */
+        DATABASE
+    }
+
+    private final Counter created;
+    private final Counter checkedIn;
+    private final Counter[] conflicts;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.created = Counter.builder("booking.creates")
+                .description("创建成功的预约数")
+                .register(meterRegistry);
+        this.checkedIn = Counter.builder("booking.checkins")
+                .description("签到次数")
+                .register(meterRegistry);
+        this.conflicts = new Counter[ConflictSource.values().length];
+        for (ConflictSource source : ConflictSource.values()) {
+            conflicts[source.ordinal()] = Counter.builder("booking.conflicts")
+                    .description("因时间段冲突被拒绝的预约数")
+                    .tag("source", source.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void created() {
+        created.increment();
+    }
+
+    public void checkedIn() {
+        checkedIn.increment();
+    }
+
+    public void conflict(ConflictSource source) {
+        conflicts[source.ordinal()].increment();
+    }
+}
@@ -0,0 +1,62 @@
+package com.zyx.studyroomsystem.booking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 预约相关配置（application.yml 中的 booking.*）
+ *
+ * @param admission 预约准入（冲突检测）配置
+ * @param noShow    未签到自动释放配置
+ * @param closeout  闭馆强制签退配置
+ */
+@ConfigurationProperties(prefix = "booking")
+public record BookingProperties(@DefaultValue Admission admission,
+                                @DefaultValue NoShow noShow,
+                                @DefaultValue Closeout closeout) {
+
+    /**
+     * @param mode    准入模式，默认 INDEX
+     * @param stripes STRIPED 模式下的锁分段数量，默认 64
+     */
+    public record Admission(@DefaultValue("INDEX") AdmissionMode mode,
+                            @DefaultValue("64") int stripes) {
+    }
+
+    /**
+     * @param enabled     是否启用未签到自动释放，默认开启
+     * @param gracePeriod 开始时间之后允许签到的宽限期，超过即释放，默认 15 分钟
+     * @param batchSize   单条 UPDATE 最多释放的预约数，默认 500
+     */
+    public record NoShow(@DefaultValue("true") boolean enabled,
+                         @DefaultValue("15m") Duration gracePeriod,
+                         @DefaultValue("500") int batchSize) {
+    }
+
+    /**
+     * @param enabled   是否启用闭馆强制签退，默认开启
+     * @param cron      闭馆时间（Spring cron 表达式），默认每天 22:00
+     * @param zone      cron 使用的时区，默认 Asia/Shanghai
+     * @param chunkSize 每块（每条 SQL / 每个事务）处理的预约数，默认 1000
+     */
+    public record Closeout(@DefaultValue("true") boolean enabled,
+                           @DefaultValue("0 0 22 * * *") String cron,
+                           @DefaultValue("Asia/Shanghai") String zone,
+                           @DefaultValue("1000") int chunkSize) {
+    }
+
+    /**
+     * 预约准入模式。
+     * 无论哪种模式，bookings_seat_period_excl 排他约束都是最终保证。
+     */
+    public enum AdmissionMode {
+        /** 单节点：内存区间索引原子预检，数据库约束兜底 */
+        INDEX,
+        /** 多节点：不做应用层预检，直接插入，由数据库排他约束判定冲突 */
+        DATABASE,
+        /** 单节点 + 未安装排他约束的数据库：按座位分段加锁，串行执行“查库检查 + 插入” */
+        STRIPED
+    }
+}
@@ -0,0 +1,15 @@
+package com.zyx.studyroomsystem.booking;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 座位的一段时间被释放（预约取消、删除、提前签退、未签到释放）。
+ * 在释放已生效（已写库）之后发布，由候补队列等监听方处理。
+ *
+ * @param seatId 座位ID
+ * @param start  释放的时间段开始
+ * @param end    释放的时间段结束
+ */
+public record BookingReleasedEvent(UUID seatId, OffsetDateTime start, OffsetDateTime end) {
+}
@@ -0,0 +1,32 @@
+package com.zyx.studyroomsystem.booking;
+
+import java.util.Set;
+
+/**
+ * 预约状态常量。
+ * 与 Booking.state 的校验正则保持一致。
+ */
+public final class BookingStates {
+
+    public static final String PENDING = "PENDING";
+    public static final String CONFIRMED = "CONFIRMED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String CHECKED_IN = "CHECKED_IN";
+    public static final String CHECKED_OUT = "CHECKED_OUT";
+
+    /** 所有合法状态 */
+    public static final Set<String> ALL = Set.of(PENDING, CONFIRMED, CANCELLED, CHECKED_IN, CHECKED_OUT);
+
+    /** 仍然占用座位的状态（参与时间冲突判断） */
+    public static final Set<String> ACTIVE = Set.of(PENDING, CONFIRMED, CHECKED_IN);
+
+    private BookingStates() {
+    }
+
+    /**
+     * 判断该状态是否仍占用座位
+     */
+    public static boolean isActive(String state) {
+        return state != null && ACTIVE.contains(state);
+    }
+}
@@ -0,0 +1,29 @@
+package com.zyx.studyroomsystem.booking;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 预约记录导出格式
+ */
+public enum ExportFormat {
+    /** 带表头的 CSV，UTF-8 */
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv"),
+    /** 每行一个 JSON 对象（NDJSON） */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,141 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.violation.ViolationLedger;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * 闭馆强制签退。
+ *
+ * 每天闭馆时间（默认 22:00）把所有仍为 CHECKED_IN 的预约置为 CHECKED_OUT，并为每条记录一条“未在规定时间签退”违规。
+ * 按固定大小分块执行，每块是一条 SQL（选取 + 更新 + 写违规记录），在同一个事务内完成，
+ * 每块只锁定本块的行（FOR UPDATE SKIP LOCKED），不会长时间锁住整张表，多个节点同时执行也会各自领取不同的行。
+ *
+ * 可恢复：进度就是数据本身——已处理的行不再是 CHECKED_IN，
+ * 节点中途宕机后，启动时若发现最近一次闭馆时间之前仍有未签退的预约，会以该闭馆时间为准补跑剩余部分。
+ */
+@Component
+public class NightlyCloseoutJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NightlyCloseoutJob.class);
+
+    private final BookingMapper bookingMapper;
+    private final SeatBookingIndex seatBookingIndex;
+    private final ViolationLedger violationLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingProperties.Closeout config;
+    private final Timer durationTimer;
+    private final Counter rowsCounter;
+
+    public NightlyCloseoutJob(BookingMapper bookingMapper, SeatBookingIndex seatBookingIndex,
+                              ViolationLedger violationLedger, ApplicationEventPublisher eventPublisher,
+                              BookingProperties bookingProperties, MeterRegistry meterRegistry) {
+        this.bookingMapper = bookingMapper;
+        this.seatBookingIndex = seatBookingIndex;
+        this.violationLedger = violationLedger;
+        this.eventPublisher = eventPublisher;
+        this.config = bookingProperties.closeout();
+        if (config.chunkSize() < 1) {
+            throw new IllegalArgumentException("booking.closeout.chunk-size 必须大于 0");
+        }
+        this.durationTimer = Timer.builder("booking.closeout.duration")
+                .description("闭馆强制签退单次执行耗时")
+                .register(meterRegistry);
+        this.rowsCounter = Counter.builder("booking.closeout.rows")
+                .description("闭馆强制签退处理的预约数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 按计划在闭馆时间执行
+     */
+    @Scheduled(cron = "${booking.closeout.cron:0 0 22 * * *}", zone = "${booking.closeout.zone:Asia/Shanghai}")
+    public void runScheduled() {
+        if (config.enabled()) {
+            closeOut(OffsetDateTime.now());
+        }
+    }
+
+    /**
+     * 启动时补跑：上一次闭馆时间之前开始、仍未签退的预约（停机错过了计划执行，或上次执行中途宕机）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        if (!config.enabled()) {
+            return;
+        }
+        try {
+            closeOut(lastCloseTime(ZonedDateTime.now(ZoneId.of(config.zone()))).toOffsetDateTime());
+        } catch (DataAccessException e) {
+            log.warn("闭馆强制签退补跑失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 分块签退 cutoff 之前开始、仍为 CHECKED_IN 的预约，签退时间记为 cutoff
+     *
+     * @return 处理的预约数
+     */
+    public long closeOut(OffsetDateTime cutoff) {
+        long begin = System.nanoTime();
+        long total = 0;
+        int chunks = 0;
+        List<Booking> closed;
+        do {
+            closed = bookingMapper.closeOutCheckedIn(cutoff, config.chunkSize(),
+                    UlidToUuidConverter.generateUuidsFromUlid(config.chunkSize()));
+            OffsetDateTime now = OffsetDateTime.now();
+            for (Booking booking : closed) {
+                seatBookingIndex.release(booking.getId());
+                violationLedger.record(booking.getUserId(), now);
+                eventPublisher.publishEvent(new SeatStateChangedEvent(booking.getSeatId(), booking.getId(),
+                        SeatStateChangedEvent.Change.RELEASED, booking.getStartTime(), booking.getEndTime()));
+            }
+            total += closed.size();
+            chunks++;
+        } while (closed.size() == config.chunkSize());
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - begin);
+        durationTimer.record(elapsed);
+        rowsCounter.increment(total);
+        if (total > 0) {
+            double seconds = Math.max(elapsed.toNanos() / 1e9, 1e-9);
+            log.info("闭馆强制签退完成：截止 {}，{} 条预约，{} 块，耗时 {} ms，{} 行/秒",
+                    cutoff, total, chunks, elapsed.toMillis(), String.format("%.0f", total / seconds));
+        }
+        return total;
+    }
+
+    /**
+     * 不晚于 now 的最近一次闭馆时间
+     */
+    ZonedDateTime lastCloseTime(ZonedDateTime now) {
+        CronExpression cron = CronExpression.parse(config.cron());
+        ZonedDateTime last = null;
+        ZonedDateTime next = cron.next(now.minusDays(2));
+        while (next != null && !next.isAfter(now)) {
+            last = next;
+            next = cron.next(next);
+        }
+        return last != null ? last : now;
+    }
+}
@@ -0,0 +1,162 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.violation.ViolationLedger;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 未签到自动释放。
+ *
+ * 每个尚未签到的有效预约（PENDING / CONFIRMED）按“开始时间 + 宽限期”登记到延迟队列，
+ * 定时任务每个 tick 只取出已到期的条目，按批执行一条 UPDATE 把仍未签到的预约置为 CANCELLED，
+ * 释放工作量只与到期的预约数量有关，与 bookings 表大小无关。被释放的预约各记一条“未在规定时间签到”违规，
+ * 剩余时段通过 {@link BookingReleasedEvent} 交给候补队列。
+ *
+ * 约定：
+ * - 队列条目只增不删：签到、取消、改期后的旧条目到期时由 UPDATE 的条件（状态、未签到、开始时间）过滤掉
+ * - 启动时从数据库重建队列，停机期间已过期的预约在第一个 tick 释放
+ * - 队列只在当前节点内存中；多节点部署时每个节点释放自己登记过的预约，重复执行 UPDATE 是幂等的
+ */
+@Component
+public class NoShowReleaser {
+
+    private static final Logger log = LoggerFactory.getLogger(NoShowReleaser.class);
+
+    private final BookingMapper bookingMapper;
+    private final SeatBookingIndex seatBookingIndex;
+    private final ViolationLedger violationLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingProperties.NoShow config;
+    private final Counter releasedCounter;
+
+    private final DelayQueue<Deadline> deadlines = new DelayQueue<>();
+
+    public NoShowReleaser(BookingMapper bookingMapper, SeatBookingIndex seatBookingIndex,
+                          ViolationLedger violationLedger, ApplicationEventPublisher eventPublisher,
+                          BookingProperties bookingProperties, MeterRegistry meterRegistry) {
+        this.bookingMapper = bookingMapper;
+        this.seatBookingIndex = seatBookingIndex;
+        this.violationLedger = violationLedger;
+        this.eventPublisher = eventPublisher;
+        this.config = bookingProperties.noShow();
+        this.releasedCounter = Counter.builder("booking.noshow.released")
+                .description("因未按时签到被自动释放的预约数")
+                .register(meterRegistry);
+        Gauge.builder("booking.noshow.pending", deadlines, DelayQueue::size)
+                .description("等待签到截止的预约数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动完成后从数据库重建签到截止队列，只加载尚未结束的预约（队列大小与近期预约数成正比）。
+     * 数据库不可用时只记录日志，之后新建的预约照常登记。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!config.enabled()) {
+            return;
+        }
+        List<Booking> awaiting;
+        try {
+            awaiting = bookingMapper.selectAwaitingCheckIn(OffsetDateTime.now(ZoneOffset.UTC));
+        } catch (DataAccessException e) {
+            log.warn("未签到释放队列重建失败: {}", e.getMessage());
+            return;
+        }
+        awaiting.forEach(this::register);
+        log.info("未签到释放队列重建完成：{} 条待签到预约", awaiting.size());
+    }
+
+    /**
+     * 登记预约的签到截止时间（新建、改期后调用）；已签到或非有效状态的预约忽略
+     */
+    public void register(Booking booking) {
+        if (!config.enabled() || booking.getStartTime() == null || booking.getCheckInTime() != null
+                || !(BookingStates.PENDING.equals(booking.getState())
+                || BookingStates.CONFIRMED.equals(booking.getState()))) {
+            return;
+        }
+        Instant deadline = booking.getStartTime().toInstant().plus(config.gracePeriod());
+        deadlines.add(new Deadline(booking.getId(), deadline));
+    }
+
+    /**
+     * 取出所有已到期的条目，按批释放
+     */
+    @Scheduled(fixedDelayString = "${booking.no-show.tick:5s}")
+    public void releaseDue() {
+        if (!config.enabled()) {
+            return;
+        }
+        List<Deadline> due = new ArrayList<>();
+        // DelayQueue.drainTo 只会取出已到期的元素
+        while (deadlines.drainTo(due, config.batchSize()) > 0) {
+            List<UUID> ids = due.stream().map(Deadline::bookingId).toList();
+            OffsetDateTime startedBefore = OffsetDateTime.now(ZoneOffset.UTC).minus(config.gracePeriod());
+            List<Booking> released;
+            try {
+                released = bookingMapper.releaseNoShows(ids, startedBefore,
+                        UlidToUuidConverter.generateUuidsFromUlid(ids.size()));
+            } catch (DataAccessException e) {
+                // 放回队列，下个 tick 重试
+                deadlines.addAll(due);
+                log.warn("未签到释放失败，{} 条预约将在下次重试: {}", due.size(), e.getMessage());
+                return;
+            }
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            for (Booking booking : released) {
+                seatBookingIndex.release(booking.getId());
+                violationLedger.record(booking.getUserId(), now);
+                eventPublisher.publishEvent(new SeatStateChangedEvent(booking.getSeatId(), booking.getId(),
+                        SeatStateChangedEvent.Change.RELEASED, booking.getStartTime(), booking.getEndTime()));
+                if (booking.getEndTime().isAfter(now)) {
+                    eventPublisher.publishEvent(new BookingReleasedEvent(booking.getSeatId(), now, booking.getEndTime()));
+                }
+            }
+            releasedCounter.increment(released.size());
+            if (!released.isEmpty()) {
+                log.info("已释放 {} 条未签到预约", released.size());
+            }
+            due.clear();
+        }
+    }
+
+    /**
+     * 单个预约的签到截止时间
+     */
+    private record Deadline(UUID bookingId, Instant at) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), at));
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return at.compareTo(((Deadline) o).at);
+        }
+    }
+}
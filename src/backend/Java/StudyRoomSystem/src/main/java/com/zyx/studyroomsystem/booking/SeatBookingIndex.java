@@ -0,0 +1,316 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 座位预约区间索引（内存）。
+ *
+ * 每个座位维护一个按开始时间排序的有效预约区间集合，
+ * 冲突检测只需在 [start - 最长时长, end) 范围内做一次有界扫描，复杂度 O(log n + k)，
+ * 热路径上不再查询数据库。
+ *
+ * 约定：
+ * - 区间为左闭右开 [start, end)，首尾相接不算冲突
+ * - 只索引仍占用座位的预约（见 {@link BookingStates#ACTIVE}），取消/签退后立即移出
+ * - 启动时从 bookings 表预热；未预热的座位在首次访问时按座位懒加载
+ */
+@Component
+public class SeatBookingIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatBookingIndex.class);
+
+    /** 用作范围查询边界的最小 UUID */
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private static final Comparator<Slot> ORDER =
+            Comparator.comparing(Slot::start).thenComparing(Slot::bookingId);
+
+    private final BookingMapper bookingMapper;
+    private final BookingProperties bookingProperties;
+
+    /** seatId -> 该座位的区间集合 */
+    private final Map<UUID, SeatSchedule> schedules = new ConcurrentHashMap<>();
+
+    /** bookingId -> 区间，用于按预约ID删除/更新 */
+    private final Map<UUID, Slot> slotsByBooking = new ConcurrentHashMap<>();
+
+    public SeatBookingIndex(BookingMapper bookingMapper, BookingProperties bookingProperties) {
+        this.bookingMapper = bookingMapper;
+        this.bookingProperties = bookingProperties;
+    }
+
+    /**
+     * 启动完成后从数据库预热所有未结束的有效预约。
+     * 数据库不可用时只记录日志，之后按座位懒加载。
+     * 非 INDEX 准入模式下不使用索引，也不预热。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (bookingProperties.admission().mode() != BookingProperties.AdmissionMode.INDEX) {
+            return;
+        }
+        List<Booking> active;
+        try {
+            active = bookingMapper.selectActiveBookingsEndingAfter(OffsetDateTime.now());
+        } catch (DataAccessException e) {
+            log.warn("预约索引预热失败，将按座位懒加载: {}", e.getMessage());
+            return;
+        }
+
+        Map<UUID, List<Booking>> bySeat = new HashMap<>();
+        for (Booking b : active) {
+            bySeat.computeIfAbsent(b.getSeatId(), k -> new ArrayList<>()).add(b);
+        }
+        bySeat.forEach((seatId, bookings) -> {
+            SeatSchedule schedule = new SeatSchedule();
+            bookings.forEach(b -> schedule.add(toSlot(b)));
+            schedule.loaded = true;
+            // 已被懒加载的座位以懒加载结果为准
+            if (schedules.putIfAbsent(seatId, schedule) == null) {
+                schedule.slots.forEach(s -> slotsByBooking.put(s.bookingId(), s));
+            }
+        });
+        log.info("预约索引预热完成：{} 个座位，{} 条有效预约", bySeat.size(), active.size());
+    }
+
+    /**
+     * 检查冲突并占用区间（原子操作）。
+     * 非有效状态的预约不占用座位，直接返回 true。
+     *
+     * @return true 表示占用成功；false 表示与已有预约冲突
+     */
+    public boolean tryReserve(Booking booking) {
+        if (!BookingStates.isActive(booking.getState())) {
+            return true;
+        }
+        Slot slot = toSlot(booking);
+        SeatSchedule schedule = loadedSchedule(slot.seatId());
+        schedule.lock.lock();
+        try {
+            schedule.prune(Instant.now(), slotsByBooking);
+            if (schedule.overlaps(slot.start(), slot.end())) {
+                return false;
+            }
+            schedule.add(slot);
+            slotsByBooking.put(slot.bookingId(), slot);
+            return true;
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    /**
+     * 批量检查冲突并占用区间，同一座位只加锁一次。
+     * bookings 必须属于同一座位且都是有效状态；批次内部互相重叠的时段也算冲突（排在前面的占用成功）。
+     * allOrNothing 为 true 时只要有一个时段冲突，就撤销本批次已占用的区间
+     *
+     * @return 与 bookings 下标对应，true 表示该时段冲突
+     */
+    public boolean[] tryReserveAll(List<Booking> bookings, boolean allOrNothing) {
+        boolean[] conflicts = new boolean[bookings.size()];
+        if (bookings.isEmpty()) {
+            return conflicts;
+        }
+        SeatSchedule schedule = loadedSchedule(bookings.get(0).getSeatId());
+        List<Slot> reserved = new ArrayList<>(bookings.size());
+        schedule.lock.lock();
+        try {
+            schedule.prune(Instant.now(), slotsByBooking);
+            for (int i = 0; i < bookings.size(); i++) {
+                Slot slot = toSlot(bookings.get(i));
+                if (schedule.overlaps(slot.start(), slot.end())) {
+                    conflicts[i] = true;
+                } else {
+                    schedule.add(slot);
+                    reserved.add(slot);
+                }
+            }
+            if (allOrNothing && reserved.size() < bookings.size()) {
+                reserved.forEach(schedule.slots::remove);
+            } else {
+                reserved.forEach(s -> slotsByBooking.put(s.bookingId(), s));
+            }
+        } finally {
+            schedule.lock.unlock();
+        }
+        return conflicts;
+    }
+
+    /**
+     * 判断座位在 [start, end) 内是否已有有效预约
+     */
+    public boolean hasOverlap(UUID seatId, Instant start, Instant end) {
+        SeatSchedule schedule = loadedSchedule(seatId);
+        schedule.lock.lock();
+        try {
+            return schedule.overlaps(start, end);
+        } finally {
+            schedule.lock.unlock();
+        }
+    }
+
+    /**
+     * 修改有效预约的座位/时间：持有新座位的锁检查冲突（排除预约自身），无冲突时执行 write（写库），成功后换成新的区间。
+     * write 在锁内执行，期间其他请求无法占用新时段；write 抛出异常时索引保持不变。
+     * 换到其他座位时，旧座位上的区间在释放新座位的锁之后移除，不同时持有两个座位的锁
+     *
+     * @return true 表示修改成功；false 表示与其他预约冲突，write 未执行
+     */
+    public boolean tryReschedule(Booking booking, Runnable write) {
+        Slot slot = toSlot(booking);
+        SeatSchedule schedule = loadedSchedule(slot.seatId());
+        Slot previous;
+        schedule.lock.lock();
+        try {
+            schedule.prune(Instant.now(), slotsByBooking);
+            if (schedule.overlaps(slot.start(), slot.end(), slot.bookingId())) {
+                return false;
+            }
+            write.run();
+            previous = slotsByBooking.put(slot.bookingId(), slot);
+            if (previous != null && previous.seatId().equals(slot.seatId())) {
+                schedule.slots.remove(previous);
+            }
+            schedule.add(slot);
+        } finally {
+            schedule.lock.unlock();
+        }
+        if (previous != null && !previous.seatId().equals(slot.seatId())) {
+            SeatSchedule old = schedules.get(previous.seatId());
+            if (old != null) {
+                old.lock.lock();
+                try {
+                    old.slots.remove(previous);
+                } finally {
+                    old.lock.unlock();
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 释放预约占用的区间（取消、签退、删除或插入失败时调用）
+     */
+    public void release(UUID bookingId) {
+        Slot slot = slotsByBooking.remove(bookingId);
+        if (slot == null) {
+            return;
+        }
+        SeatSchedule schedule = schedules.get(slot.seatId());
+        if (schedule != null) {
+            schedule.lock.lock();
+            try {
+                schedule.slots.remove(slot);
+            } finally {
+                schedule.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 获取座位的区间集合，首次访问时从数据库加载该座位的有效预约。
+     * 加载时持锁查询数据库，因此使用 ReentrantLock 而不是 synchronized：虚拟线程在 synchronized 块内阻塞会钉住载体线程
+     */
+    private SeatSchedule loadedSchedule(UUID seatId) {
+        SeatSchedule schedule = schedules.computeIfAbsent(seatId, k -> new SeatSchedule());
+        schedule.lock.lock();
+        try {
+            if (!schedule.loaded) {
+                for (Booking b : bookingMapper.selectActiveBookingsBySeatIdEndingAfter(seatId, OffsetDateTime.now())) {
+                    Slot slot = toSlot(b);
+                    schedule.add(slot);
+                    slotsByBooking.put(slot.bookingId(), slot);
+                }
+                schedule.loaded = true;
+            }
+        } finally {
+            schedule.lock.unlock();
+        }
+        return schedule;
+    }
+
+    private static Slot toSlot(Booking b) {
+        return new Slot(b.getId(), b.getSeatId(), b.getStartTime().toInstant(), b.getEndTime().toInstant());
+    }
+
+    /**
+     * 单个预约占用的时间区间 [start, end)
+     */
+    private record Slot(UUID bookingId, UUID seatId, Instant start, Instant end) {
+    }
+
+    /**
+     * 单个座位的区间集合，所有访问都需要持有 lock
+     */
+    private static final class SeatSchedule {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final NavigableSet<Slot> slots = new TreeSet<>(ORDER);
+        /** 已登记区间中的最长时长，决定冲突扫描的下界 */
+        private Duration maxDuration = Duration.ZERO;
+        private boolean loaded;
+
+        void add(Slot slot) {
+            slots.add(slot);
+            Duration d = Duration.between(slot.start(), slot.end());
+            if (d.compareTo(maxDuration) > 0) {
+                maxDuration = d;
+            }
+        }
+
+        boolean overlaps(Instant start, Instant end) {
+            return overlaps(start, end, null);
+        }
+
+        /**
+         * 与 [start, end) 重叠的区间开始时间一定落在 (start - maxDuration, end) 内；exclude 为要忽略的预约ID，可为 null
+         */
+        boolean overlaps(Instant start, Instant end, UUID exclude) {
+            Slot from = new Slot(MIN_ID, null, start.minus(maxDuration), null);
+            Slot to = new Slot(MIN_ID, null, end, null);
+            for (Slot s : slots.subSet(from, true, to, false)) {
+                if (s.end().isAfter(start) && !s.bookingId().equals(exclude)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 移除已经结束的区间，保持索引只包含未来/进行中的预约
+         */
+        void prune(Instant now, Map<UUID, Slot> slotsByBooking) {
+            Slot bound = new Slot(MIN_ID, null, now.minus(maxDuration), null);
+            Iterator<Slot> it = slots.headSet(bound, false).iterator();
+            while (it.hasNext()) {
+                Slot s = it.next();
+                if (!s.end().isAfter(now)) {
+                    it.remove();
+                    slotsByBooking.remove(s.bookingId());
+                }
+            }
+        }
+    }
+}
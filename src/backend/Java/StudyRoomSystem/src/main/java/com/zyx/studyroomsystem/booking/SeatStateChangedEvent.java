@@ -0,0 +1,28 @@
+package com.zyx.studyroomsystem.booking;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 座位上的预约状态发生变化，用于向前端实时推送房间座位图的增量。
+ *
+ * @param seatId    座位ID
+ * @param bookingId 预约ID
+ * @param change    变化类型
+ * @param startTime 预约开始时间
+ * @param endTime   预约结束时间
+ */
+public record SeatStateChangedEvent(UUID seatId, UUID bookingId, Change change,
+                                    OffsetDateTime startTime, OffsetDateTime endTime) {
+
+    public enum Change {
+        /** 新建预约 */
+        BOOKED,
+        /** 预约被修改（时间、座位或确认） */
+        UPDATED,
+        /** 已签到 */
+        CHECKED_IN,
+        /** 取消、删除、签退或未签到释放，座位该时段空出 */
+        RELEASED
+    }
+}
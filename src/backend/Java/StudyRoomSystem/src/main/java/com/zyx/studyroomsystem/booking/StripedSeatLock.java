@@ -0,0 +1,72 @@
+package com.zyx.studyroomsystem.booking;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 按座位分段的锁表（仅 STRIPED 准入模式启用）。
+ *
+ * seatId 哈希到固定数量的锁上，同一座位的“冲突检查 + 插入”串行执行，
+ * 不同座位大概率落在不同分段上，可以完全并行。
+ *
+ * 暴露的指标：
+ * - booking.admission.lock.wait：获取锁的等待时间
+ * - booking.admission.lock.queue{stripe}：每个分段上排队等待的线程数，用于评估分段数量是否足够
+ */
+@Component
+@ConditionalOnProperty(name = "booking.admission.mode", havingValue = "STRIPED")
+public class StripedSeatLock {
+
+    private final ReentrantLock[] stripes;
+    private final Timer waitTimer;
+
+    public StripedSeatLock(BookingProperties bookingProperties, MeterRegistry meterRegistry) {
+        int count = bookingProperties.admission().stripes();
+        if (count < 1) {
+            throw new IllegalArgumentException("booking.admission.stripes 必须大于 0");
+        }
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            ReentrantLock lock = new ReentrantLock();
+            stripes[i] = lock;
+            Gauge.builder("booking.admission.lock.queue", lock, ReentrantLock::getQueueLength)
+                    .description("等待该分段锁的线程数")
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.waitTimer = Timer.builder("booking.admission.lock.wait")
+                .description("获取座位分段锁的等待时间")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 持有 seatId 对应分段锁执行 action
+     */
+    public <T> T withLock(UUID seatId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(seatId)];
+        long begin = System.nanoTime();
+        lock.lock();
+        try {
+            waitTimer.record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripeOf(UUID seatId) {
+        // 混合高低位，避免 ULID 时间戳前缀导致分布不均
+        int h = seatId.hashCode();
+        h ^= (h >>> 16);
+        return Math.floorMod(h, stripes.length);
+    }
+}
@@ -0,0 +1,39 @@
+package com.zyx.studyroomsystem.cache;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * 事务感知的缓存管理器。
+ * <p>
+ * 房间/座位的写方法同时带 @Transactional 与 @CacheEvict，Boot 默认的 CaffeineCacheManager 会在方法返回、
+ * 事务提交之前就清掉缓存：这期间另一个请求读到旧行又写回缓存，提交后缓存里留下的仍是旧数据，直到 expireAfterWrite 过期。
+ * 包一层 {@link TransactionAwareCacheManagerProxy} 后，事务内的 put/evict 推迟到提交之后执行，回滚时直接丢弃；
+ * 没有事务时照常立即执行。
+ * <p>
+ * 自定义 CacheManager 后 Boot 的缓存自动配置整体退让，这里沿用 spring.cache.* 的缓存名与 Caffeine 规格；
+ * 缓存指标照常按 cacheManager=cacheManager 注册（指标绑定会拆开事务装饰器）。
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties properties) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        String spec = properties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            caffeine.setCacheSpecification(spec);
+        }
+        if (!properties.getCacheNames().isEmpty()) {
+            caffeine.setCacheNames(properties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -1,6 +1,5 @@
 package com.zyx.studyroomsystem.controller;
 
-import com.zyx.studyroomsystem.exception.AuthenticationFailedException;
 import com.zyx.studyroomsystem.pojo.User;
 import com.zyx.studyroomsystem.security.JwtUtil;
 import com.zyx.studyroomsystem.security.SecurityUser;
@@ -8,7 +7,6 @@ import com.zyx.studyroomsystem.service.UserService;
 import com.zyx.studyroomsystem.web.ApiResponse;
 import com.zyx.studyroomsystem.web.RegisterDto;
 import jakarta.validation.Valid;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -17,12 +15,10 @@ import java.util.Map;
 @RequestMapping("/api/v1/auth")
 public class AuthController {
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
 
-    public AuthController(UserService userService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthController(UserService userService, JwtUtil jwtUtil) {
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
     }
 
@@ -42,13 +38,8 @@ public class AuthController {
     public ApiResponse<?> login(@RequestBody Map<String,String> body) {
         String userName = body.get("username");
         String password = body.get("password");
-        User user = userService.getUserByUserName(userName);
-        if (user == null) {
-            throw new AuthenticationFailedException("用户不存在: " + userName);
-        }
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new AuthenticationFailedException("密码错误");
-        }
+        // 密码校验在独立线程池中执行，繁忙时返回 429
+        User user = userService.authenticate(userName, password);
 
         // 使用 JwtUtil 生成 JWT
         String jwtToken = jwtUtil.generateToken(new SecurityUser(user));
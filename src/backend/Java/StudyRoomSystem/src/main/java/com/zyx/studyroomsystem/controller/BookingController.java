@@ -1,16 +1,29 @@
 package com.zyx.studyroomsystem.controller;
 
+import com.zyx.studyroomsystem.booking.BookingStates;
+import com.zyx.studyroomsystem.booking.ExportFormat;
 import com.zyx.studyroomsystem.exception.InvalidRequestException;
 import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
 import com.zyx.studyroomsystem.pojo.Booking;
 import com.zyx.studyroomsystem.service.BookingService;
 import com.zyx.studyroomsystem.web.ApiResponse;
+import com.zyx.studyroomsystem.web.BatchBookingRequest;
+import com.zyx.studyroomsystem.web.BatchBookingResult;
+import com.zyx.studyroomsystem.web.CursorPage;
 import com.zyx.studyroomsystem.web.UlidToUuidConverter;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.DateTimeException;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -35,10 +48,51 @@ public class BookingController {
         return ApiResponse.ok(booking);
     }
 
-    /** 获取用户的预约列表 */
+    /** 获取用户的预约列表（键集分页，从新到旧；可按状态和时间段过滤） */
     @GetMapping("/my")
-    public ApiResponse<List<Booking>> my(@RequestParam @NotNull UUID userId) {
-        return ApiResponse.ok(bookingService.getBookingsByUserId(userId));
+    public ApiResponse<CursorPage<Booking>> my(
+            @RequestParam @NotNull UUID userId,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) UUID cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > CursorPage.MAX_LIMIT) {
+            throw new InvalidRequestException("limit 必须在 1 到 " + CursorPage.MAX_LIMIT + " 之间");
+        }
+        if (state != null && !BookingStates.ALL.contains(state)) {
+            throw new InvalidRequestException("未知的预约状态: " + state);
+        }
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new InvalidRequestException("结束时间必须晚于开始时间");
+        }
+        return ApiResponse.ok(bookingService.getBookingPageByUserId(userId, state, from, to, cursor, limit));
+    }
+
+    /**
+     * 导出开始时间在 [from, to) 内的预约记录（管理员）。
+     * 结果从数据库游标直接流式写出，内存占用与行数无关；写出过程在异步线程上执行，不占用 Web 工作线程
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "csv") String format) {
+        if (!to.isAfter(from)) {
+            throw new InvalidRequestException("结束时间必须晚于开始时间");
+        }
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("不支持的导出格式: " + format);
+        }
+        String filename = "bookings-" + from.toLocalDate() + "-" + to.toLocalDate() + "." + exportFormat.extension();
+        StreamingResponseBody body = out -> bookingService.exportBookings(from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
     }
 
     /** 创建预约 */
@@ -53,6 +107,55 @@ public class BookingController {
         return ApiResponse.ok(Map.of("id", booking.getId()));
     }
 
+    /**
+     * 批量/周期预约：同一用户、同一座位的多个时段（显式列表和/或按周重复规则），
+     * 一次检查全部时段并用一条多行 INSERT 写入，返回每个时段的结果。
+     * mode 为 ALL_OR_NOTHING（默认）时任一时段失败则全部不预约；BEST_EFFORT 时只预约成功的时段
+     */
+    @PostMapping("/batch")
+    public ApiResponse<BatchBookingResult> batch(@Valid @RequestBody BatchBookingRequest request) {
+        BatchBookingRequest.Recurrence recurrence = request.recurrence();
+        if (recurrence != null) {
+            if (!recurrence.endTime().isAfter(recurrence.startTime())) {
+                throw new InvalidRequestException("每天的结束时间必须晚于开始时间");
+            }
+            if (recurrence.until().isBefore(recurrence.from())
+                    || ChronoUnit.DAYS.between(recurrence.from(), recurrence.until()) > BatchBookingRequest.MAX_RECURRENCE_DAYS) {
+                throw new InvalidRequestException("重复规则的日期范围必须在 1 到 "
+                        + BatchBookingRequest.MAX_RECURRENCE_DAYS + " 天之间");
+            }
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        List<BatchBookingRequest.Slot> slots;
+        try {
+            slots = request.resolveSlots(now);
+        } catch (DateTimeException e) {
+            throw new InvalidRequestException("时区不合法: " + recurrence.zone());
+        }
+        if (slots.isEmpty()) {
+            throw new InvalidRequestException("没有需要预约的时段");
+        }
+        if (slots.size() > BatchBookingRequest.MAX_SLOTS) {
+            throw new InvalidRequestException("单次最多预约 " + BatchBookingRequest.MAX_SLOTS + " 个时段");
+        }
+
+        // 一次生成全部 ULID
+        List<UUID> ids = UlidToUuidConverter.generateUuidsFromUlid(slots.size());
+        List<Booking> bookings = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            Booking booking = new Booking();
+            booking.setId(ids.get(i));
+            booking.setUserId(request.userId());
+            booking.setSeatId(request.seatId());
+            booking.setCreateTime(now);
+            booking.setStartTime(slots.get(i).startTime());
+            booking.setEndTime(slots.get(i).endTime());
+            booking.setState(BookingStates.CONFIRMED);
+            bookings.add(booking);
+        }
+        return ApiResponse.ok(bookingService.addBookings(bookings, request.mode()));
+    }
+
     /** 更新预约 */
     @PutMapping
     public ApiResponse<?> update(@Valid @RequestBody Booking booking) {
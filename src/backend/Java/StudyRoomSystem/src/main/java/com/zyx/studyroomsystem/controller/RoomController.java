@@ -1,14 +1,21 @@
 package com.zyx.studyroomsystem.controller;
 
+import com.zyx.studyroomsystem.exception.InvalidRequestException;
 import com.zyx.studyroomsystem.exception.ResourceConflictException;
 import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
 import com.zyx.studyroomsystem.pojo.Room;
+import com.zyx.studyroomsystem.room.RoomEventHub;
 import com.zyx.studyroomsystem.service.RoomService;
 import com.zyx.studyroomsystem.web.ApiResponse;
+import com.zyx.studyroomsystem.web.RoomAvailability;
 import com.zyx.studyroomsystem.web.UlidToUuidConverter;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -17,9 +24,11 @@ import java.util.UUID;
 @RequestMapping("/api/v1/room")
 public class RoomController {
     private final RoomService roomService;
+    private final RoomEventHub roomEventHub;
 
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, RoomEventHub roomEventHub) {
         this.roomService = roomService;
+        this.roomEventHub = roomEventHub;
     }
 
     /** 获取所有房间 */
@@ -28,7 +37,7 @@ public class RoomController {
         return ApiResponse.ok(roomService.getAllRooms());
     }
 
-    /** 创建房间 */
+    /** 创建房间，同时按 rows × cols 生成全部座位 */
     @PostMapping
     public ApiResponse<?> create(@Valid @RequestBody Room room) {
         // 检查房间是否已存在（假设通过名称判断）
@@ -37,8 +46,23 @@ public class RoomController {
         }
         // 手动生成 ULID → UUID
         room.setId(UlidToUuidConverter.generateUuidFromUlid());
-        roomService.addRoom(room);
-        return ApiResponse.ok(Map.of("id", room.getId()));
+        int seats = roomService.addRoom(room);
+        return ApiResponse.ok(Map.of("id", room.getId(), "seats", seats));
+    }
+
+    /** 更新房间，行列数变化时同步调整座位网格 */
+    @PutMapping("/{id}")
+    public ApiResponse<?> update(@PathVariable UUID id, @Valid @RequestBody Room room) {
+        Room existing = roomService.getRoomById(id);
+        if (existing == null) {
+            throw new ResourceNotFoundException("房间不存在: " + id);
+        }
+        if (!existing.getName().equals(room.getName()) && roomService.existsByName(room.getName())) {
+            throw new ResourceConflictException("房间已存在: " + room.getName());
+        }
+        room.setId(id); // 保持 ID 一致
+        roomService.updateRoom(room);
+        return ApiResponse.ok(Map.of("updated", true));
     }
 
     /** 根据 ID 获取房间 */
@@ -51,6 +75,35 @@ public class RoomController {
         return ApiResponse.ok(room);
     }
 
+    /** 获取房间在 [from, to) 时间段内的座位占用位图（一次查询，替代逐个座位查预约） */
+    @GetMapping("/{id}/availability")
+    public ApiResponse<RoomAvailability> availability(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new InvalidRequestException("结束时间必须晚于开始时间");
+        }
+        RoomAvailability availability = roomService.getAvailability(id, from, to);
+        if (availability == null) {
+            throw new ResourceNotFoundException("房间不存在: " + id);
+        }
+        return ApiResponse.ok(availability);
+    }
+
+    /**
+     * 订阅房间座位状态的实时变化（Server-Sent Events）。
+     * 连接建立后先收到 ready 事件，之后每次预约新建/修改/签到/释放推送一条 seat 事件（座位ID、预约ID、变化类型、时段），
+     * 客户端收到 ready 后拉取一次座位图，再按增量更新，不再需要轮询
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable UUID id) {
+        if (roomService.getRoomById(id) == null) {
+            throw new ResourceNotFoundException("房间不存在: " + id);
+        }
+        return roomEventHub.subscribe(id);
+    }
+
     /** 删除房间 */
     @DeleteMapping("/{id}")
     public ApiResponse<?> delete(@PathVariable UUID id) {
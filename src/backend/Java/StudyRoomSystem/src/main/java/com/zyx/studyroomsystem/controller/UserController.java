@@ -1,15 +1,17 @@
 package com.zyx.studyroomsystem.controller;
 
+import com.zyx.studyroomsystem.exception.InvalidRequestException;
 import com.zyx.studyroomsystem.exception.ResourceConflictException;
 import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
 import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.pojo.UserSummary;
 import com.zyx.studyroomsystem.service.UserService;
 import com.zyx.studyroomsystem.web.ApiResponse;
+import com.zyx.studyroomsystem.web.CursorPage;
 import com.zyx.studyroomsystem.web.UlidToUuidConverter;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -29,14 +31,19 @@ public class UserController {
         return ApiResponse.ok(user);
     }
 
-    /** 获取所有用户 */
+    /** 分页获取用户列表（键集分页，从新到旧；可按角色过滤，不返回密码） */
     @GetMapping
-    public ApiResponse<List<User>> list(){
-        List<User> users = userService.getAllUsers();
-        if (users == null || users.isEmpty()) {
+    public ApiResponse<CursorPage<UserSummary>> list(@RequestParam(required = false) String role,
+                                                    @RequestParam(required = false) UUID cursor,
+                                                    @RequestParam(defaultValue = "20") int limit){
+        if (limit < 1 || limit > CursorPage.MAX_LIMIT) {
+            throw new InvalidRequestException("limit 必须在 1 到 " + CursorPage.MAX_LIMIT + " 之间");
+        }
+        CursorPage<UserSummary> page = userService.getUserPage(role, cursor, limit);
+        if (cursor == null && page.items().isEmpty()) {
             throw new ResourceNotFoundException("没有用户数据");
         }
-        return ApiResponse.ok(users);
+        return ApiResponse.ok(page);
     }
 
     /** 创建用户 */
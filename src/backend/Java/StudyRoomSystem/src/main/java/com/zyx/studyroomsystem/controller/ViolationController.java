@@ -0,0 +1,57 @@
+package com.zyx.studyroomsystem.controller;
+
+import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
+import com.zyx.studyroomsystem.pojo.Violation;
+import com.zyx.studyroomsystem.service.ViolationService;
+import com.zyx.studyroomsystem.web.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/violation")
+public class ViolationController {
+
+    private final ViolationService violationService;
+
+    public ViolationController(ViolationService violationService) {
+        this.violationService = violationService;
+    }
+
+    /** 获取单条违规记录 */
+    @GetMapping("/{id}")
+    public ApiResponse<Violation> get(@PathVariable @NotNull UUID id) {
+        Violation violation = violationService.getViolationById(id);
+        if (violation == null) {
+            throw new ResourceNotFoundException("违规记录未找到: " + id);
+        }
+        return ApiResponse.ok(violation);
+    }
+
+    /** 获取用户的违规记录列表（从新到旧） */
+    @GetMapping("/my")
+    public ApiResponse<List<Violation>> my(@RequestParam @NotNull UUID userId) {
+        return ApiResponse.ok(violationService.getViolationsByUserId(userId));
+    }
+
+    /** 获取用户的违规统计：窗口内违规次数、黑名单到期时间（不在黑名单中时为 null） */
+    @GetMapping("/status")
+    public ApiResponse<Map<String, Object>> status(@RequestParam @NotNull UUID userId) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("recentCount", violationService.getRecentViolationCount(userId));
+        status.put("bannedUntil", violationService.getBannedUntil(userId));
+        return ApiResponse.ok(status);
+    }
+
+    /** 新增违规记录（管理员） */
+    @PostMapping
+    public ApiResponse<?> create(@Valid @RequestBody Violation violation) {
+        violationService.addViolation(violation);
+        return ApiResponse.ok(Map.of("id", violation.getId()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.zyx.studyroomsystem.controller;
+
+import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
+import com.zyx.studyroomsystem.pojo.WaitlistEntry;
+import com.zyx.studyroomsystem.service.WaitlistService;
+import com.zyx.studyroomsystem.waitlist.WaitlistStates;
+import com.zyx.studyroomsystem.web.ApiResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    /** 获取单条候补，排队中时附带前面的人数 */
+    @GetMapping("/{id}")
+    public ApiResponse<Map<String, Object>> get(@PathVariable @NotNull UUID id) {
+        WaitlistEntry entry = waitlistService.getEntryById(id);
+        if (entry == null) {
+            throw new ResourceNotFoundException("候补未找到: " + id);
+        }
+        return ApiResponse.ok(withPosition(entry));
+    }
+
+    /** 获取用户的候补列表（从新到旧） */
+    @GetMapping("/my")
+    public ApiResponse<List<WaitlistEntry>> my(@RequestParam @NotNull UUID userId) {
+        return ApiResponse.ok(waitlistService.getEntriesByUserId(userId));
+    }
+
+    /** 加入候补队列；时段空闲时直接转为预约（返回的 state 为 PROMOTED，bookingId 为新预约） */
+    @PostMapping
+    public ApiResponse<Map<String, Object>> join(@Valid @RequestBody WaitlistEntry entry) {
+        return ApiResponse.ok(withPosition(waitlistService.join(entry)));
+    }
+
+    /** 取消候补 */
+    @DeleteMapping("/{id}")
+    public ApiResponse<?> cancel(@PathVariable @NotNull UUID id) {
+        waitlistService.cancel(id);
+        return ApiResponse.ok(Map.of("cancelled", true));
+    }
+
+    private Map<String, Object> withPosition(WaitlistEntry entry) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("entry", entry);
+        if (WaitlistStates.WAITING.equals(entry.getState())) {
+            result.put("position", waitlistService.getPosition(entry));
+        }
+        return result;
+    }
+}
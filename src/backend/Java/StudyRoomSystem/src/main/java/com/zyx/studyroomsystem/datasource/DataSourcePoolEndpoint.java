@@ -0,0 +1,72 @@
+package com.zyx.studyroomsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接池状态端点（GET /actuator/dbpool）：当前活跃/空闲/等待连接数、配置值与借用等待时间统计。
+ * 同样的数据以 hikaricp.connections.* 指标暴露在 /actuator/metrics 下。
+ */
+@Component
+@Endpoint(id = "dbpool")
+public class DataSourcePoolEndpoint {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+
+    public DataSourcePoolEndpoint(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> pool() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            result.put("type", dataSource.getClass().getName());
+            return result;
+        }
+        result.put("pool", hikari.getPoolName());
+        result.put("maximumPoolSize", hikari.getMaximumPoolSize());
+        result.put("minimumIdle", hikari.getMinimumIdle());
+        result.put("connectionTimeoutMs", hikari.getConnectionTimeout());
+
+        HikariPoolMXBean mxBean = hikari.getHikariPoolMXBean();
+        if (mxBean != null) {
+            result.put("active", mxBean.getActiveConnections());
+            result.put("idle", mxBean.getIdleConnections());
+            result.put("pending", mxBean.getThreadsAwaitingConnection());
+            result.put("total", mxBean.getTotalConnections());
+        }
+
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", hikari.getPoolName()).timer();
+        if (acquire != null) {
+            Map<String, Object> acquireStats = new LinkedHashMap<>();
+            acquireStats.put("count", acquire.count());
+            acquireStats.put("meanMs", acquire.mean(TimeUnit.MILLISECONDS));
+            acquireStats.put("maxMs", acquire.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : acquire.takeSnapshot().percentileValues()) {
+                acquireStats.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+            result.put("acquire", acquireStats);
+        }
+        Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", hikari.getPoolName()).counter();
+        if (timeouts != null) {
+            result.put("timeouts", (long) timeouts.count());
+        }
+        return result;
+    }
+}
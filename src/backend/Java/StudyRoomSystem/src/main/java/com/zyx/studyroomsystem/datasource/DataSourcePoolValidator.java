@@ -0,0 +1,106 @@
+package com.zyx.studyroomsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zyx.studyroomsystem.web.ConcurrencyLimitFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 启动时校验连接池大小与请求并发上限是否匹配，不匹配时只打印告警，不阻止启动。
+ *
+ * 请求并发上限：平台线程模式为 Tomcat 最大线程数，虚拟线程模式为 web.concurrency 的许可数。
+ * - 连接池大于请求并发上限：多出的连接永远用不上，白白占用数据库连接
+ * - 请求并发上限远大于连接池：高峰时请求在连接池上排队，超过 connection-timeout 后以 500 失败
+ * - 连接池大于数据库 max_connections：连接池无法填满，建立连接时报错
+ */
+@Component
+public class DataSourcePoolValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourcePoolValidator.class);
+
+    /** 请求并发上限超过连接池大小的该倍数时告警 */
+    static final int MAX_REQUESTS_PER_CONNECTION = 10;
+
+    private final DataSource dataSource;
+    private final Environment environment;
+    private final ServerProperties serverProperties;
+    private final ObjectProvider<FilterRegistrationBean<?>> filterRegistrations;
+
+    public DataSourcePoolValidator(DataSource dataSource, Environment environment, ServerProperties serverProperties,
+                                   ObjectProvider<FilterRegistrationBean<?>> filterRegistrations) {
+        this.dataSource = dataSource;
+        this.environment = environment;
+        this.serverProperties = serverProperties;
+        this.filterRegistrations = filterRegistrations;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validate() {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+        int poolSize = hikari.getMaximumPoolSize();
+        boolean virtual = Threading.VIRTUAL.isActive(environment);
+        int requestConcurrency = virtual ? concurrencyLimit() : serverProperties.getTomcat().getThreads().getMax();
+        String limitName = virtual ? "web.concurrency.max-in-flight" : "server.tomcat.threads.max";
+
+        log.info("数据库连接池 {}：最大 {}，最小空闲 {}，借用超时 {}ms；请求并发上限 {}（{}）",
+                hikari.getPoolName(), poolSize, hikari.getMinimumIdle(), hikari.getConnectionTimeout(),
+                requestConcurrency, limitName);
+
+        if (requestConcurrency > 0 && poolSize > requestConcurrency) {
+            log.warn("连接池大小 {} 大于请求并发上限 {}={}，多出的连接不会被使用，可调小 DB_POOL_SIZE",
+                    poolSize, limitName, requestConcurrency);
+        }
+        if (requestConcurrency > poolSize * MAX_REQUESTS_PER_CONNECTION) {
+            log.warn("请求并发上限 {}={} 超过连接池大小 {} 的 {} 倍，高峰时请求会在连接池上排队，"
+                            + "超过 connection-timeout={}ms 后以 500 失败，可调大 DB_POOL_SIZE 或调小 {}",
+                    limitName, requestConcurrency, poolSize, MAX_REQUESTS_PER_CONNECTION,
+                    hikari.getConnectionTimeout(), limitName);
+        }
+        validateServerLimit(hikari, poolSize);
+    }
+
+    /**
+     * 与数据库 max_connections（扣除超级用户保留连接）比较。数据库不可用时跳过。
+     */
+    private void validateServerLimit(HikariDataSource hikari, int poolSize) {
+        Integer available;
+        try {
+            available = new JdbcTemplate(hikari).queryForObject(
+                    "SELECT current_setting('max_connections')::int - current_setting('superuser_reserved_connections')::int",
+                    Integer.class);
+        } catch (DataAccessException e) {
+            log.warn("无法读取数据库 max_connections，跳过连接池校验: {}", e.getMessage());
+            return;
+        }
+        if (available != null && poolSize > available) {
+            log.warn("连接池大小 {} 超过数据库可用连接数 {}（max_connections - superuser_reserved_connections），"
+                    + "多节点部署时还需按节点数均分", poolSize, available);
+        }
+    }
+
+    /**
+     * 虚拟线程模式下限流过滤器的许可数；未注册过滤器时返回 0
+     */
+    private int concurrencyLimit() {
+        return filterRegistrations.stream()
+                .map(FilterRegistrationBean::getFilter)
+                .filter(ConcurrencyLimitFilter.class::isInstance)
+                .mapToInt(filter -> ((ConcurrencyLimitFilter) filter).getMaxInFlight())
+                .findFirst()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,43 @@
+package com.zyx.studyroomsystem.exception;
+
+import java.io.Serial;
+
+/**
+ * TooManyRequestsException 表示服务端繁忙、请求被快速拒绝。
+
+ * 使用场景：
+ * - 登录高峰时密码哈希线程池与等待队列均已占满
+
+ * 语义：
+ * - 对应 HTTP 状态码 429 (Too Many Requests)
+ * - 在全局异常处理器中捕获后，可以返回统一的 ApiResponse
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 无参构造函数。
+     */
+    public TooManyRequestsException() {
+        super("请求过多，请稍后重试");
+    }
+
+    /**
+     * 带消息的构造函数。
+     * @param message 异常描述信息
+     */
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+    /**
+     * 带消息和原因的构造函数。
+     * @param message 异常描述信息
+     * @param cause   异常的根本原因
+     */
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
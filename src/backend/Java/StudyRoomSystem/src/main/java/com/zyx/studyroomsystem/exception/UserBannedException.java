@@ -0,0 +1,34 @@
+package com.zyx.studyroomsystem.exception;
+
+import java.io.Serial;
+
+/**
+ * UserBannedException 表示用户因违规被列入黑名单、暂时不能进行该操作。
+
+ * 使用场景：
+ * - 黑名单中的用户创建预约
+
+ * 语义：
+ * - 对应 HTTP 状态码 403 (Forbidden)
+ * - 在全局异常处理器中捕获后，可以返回统一的 ApiResponse
+ */
+public class UserBannedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 无参构造函数。
+     */
+    public UserBannedException() {
+        super("用户已被列入黑名单");
+    }
+
+    /**
+     * 带消息的构造函数。
+     * @param message 异常描述信息，例如 "违规次数过多，暂停预约至 ..."
+     */
+    public UserBannedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.zyx.studyroomsystem.mapper;
+
+import com.zyx.studyroomsystem.pojo.Blacklist;
+import org.apache.ibatis.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Mapper
+public interface BlacklistMapper {
+
+    /**
+     * 当前仍生效的黑名单，每个用户只取最晚的到期时间，用于启动时重建和定期同步内存黑名单
+     */
+    @Select("SELECT user_id, max(expire_time) AS expire_time FROM blacklists " +
+            "WHERE expire_time > #{now} GROUP BY user_id")
+    List<Blacklist> selectActiveBlacklists(@Param("now") OffsetDateTime now);
+
+    @Insert("INSERT INTO blacklists(id, user_id, type, reason, create_time, expire_time) " +
+            "VALUES (#{id}, #{userId}, #{type}, #{reason}, #{createTime}, #{expireTime})")
+    int insertBlacklist(Blacklist blacklist);
+}
@@ -2,7 +2,10 @@ package com.zyx.studyroomsystem.mapper;
 
 import com.zyx.studyroomsystem.pojo.Booking;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,14 +20,166 @@ public interface BookingMapper {
             "FROM bookings WHERE user_id = #{userId}")
     List<Booking> selectBookingsByUserId(UUID userId);
 
+    /**
+     * 用户预约键集分页：按 id 倒序，从游标 after（不含）之后取 limit 条。
+     * 可按状态过滤，以及按时间段 [from, to) 过滤（与预约时间有重叠即命中）。
+     * 走 bookings_user_id_idx（见 migrations/003_bookings_user_id_idx.sql）
+     */
+    @Select("<script>" +
+            "SELECT id, user_id, seat_id, create_time, start_time, end_time, check_in_time, check_out_time, state " +
+            "FROM bookings WHERE user_id = #{userId}" +
+            "<if test='state != null'> AND state = #{state}</if>" +
+            "<if test='from != null'> AND end_time &gt; #{from}</if>" +
+            "<if test='to != null'> AND start_time &lt; #{to}</if>" +
+            "<if test='after != null'> AND id &lt; #{after}</if>" +
+            " ORDER BY id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Booking> selectBookingPageByUserId(@Param("userId") UUID userId,
+                                            @Param("state") String state,
+                                            @Param("from") OffsetDateTime from,
+                                            @Param("to") OffsetDateTime to,
+                                            @Param("after") UUID after,
+                                            @Param("limit") int limit);
+
     @Select("SELECT id, user_id, seat_id, create_time, start_time, end_time, check_in_time, check_out_time, state " +
             "FROM bookings WHERE seat_id = #{seatId}")
     List<Booking> selectBookingsBySeatId(UUID seatId);
 
+    /** 查询所有未结束的有效预约（用于预热内存区间索引） */
+    @Select("SELECT id, seat_id, start_time, end_time, state FROM bookings " +
+            "WHERE state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') AND end_time > #{after}")
+    List<Booking> selectActiveBookingsEndingAfter(OffsetDateTime after);
+
+    /** 查询某座位未结束的有效预约（用于按座位懒加载内存区间索引） */
+    @Select("SELECT id, seat_id, start_time, end_time, state FROM bookings " +
+            "WHERE seat_id = #{seatId} AND state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') AND end_time > #{after}")
+    List<Booking> selectActiveBookingsBySeatIdEndingAfter(@Param("seatId") UUID seatId, @Param("after") OffsetDateTime after);
+
+    /** 查询座位在 [start, end) 内有重叠的有效预约（批量预约一次取出整个时间范围） */
+    @Select("SELECT id, seat_id, start_time, end_time, state FROM bookings " +
+            "WHERE seat_id = #{seatId} AND state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+            "AND end_time > #{start} AND start_time < #{end}")
+    List<Booking> selectActiveOverlapping(@Param("seatId") UUID seatId,
+                                          @Param("start") OffsetDateTime start,
+                                          @Param("end") OffsetDateTime end);
+
+    /** 查询房间内所有座位在 [start, end) 内有重叠的有效预约（用于加载房间占用位图） */
+    @Select("SELECT b.id, b.seat_id, b.start_time, b.end_time, b.state FROM bookings b " +
+            "JOIN seats s ON s.id = b.seat_id " +
+            "WHERE s.room_id = #{roomId} AND b.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+            "AND b.end_time > #{start} AND b.start_time < #{end}")
+    List<Booking> selectActiveBookingsByRoomOverlapping(@Param("roomId") UUID roomId,
+                                                        @Param("start") OffsetDateTime start,
+                                                        @Param("end") OffsetDateTime end);
+
+    /**
+     * 判断座位在 [start, end) 内是否存在有效预约。
+     * 只扫描 end_time > start 的有效预约，走 bookings_seat_active_end_idx，与历史预约数量无关
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM bookings " +
+            "WHERE seat_id = #{seatId} AND state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+            "AND end_time > #{start} AND start_time < #{end})")
+    boolean existsActiveOverlap(@Param("seatId") UUID seatId,
+                                @Param("start") OffsetDateTime start,
+                                @Param("end") OffsetDateTime end);
+
+    /**
+     * 同 existsActiveOverlap，但排除指定预约自身（用于修改预约时的冲突检查）
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM bookings " +
+            "WHERE seat_id = #{seatId} AND state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+            "AND end_time > #{start} AND start_time < #{end} AND id <> #{excludeId})")
+    boolean existsActiveOverlapExcluding(@Param("seatId") UUID seatId,
+                                         @Param("start") OffsetDateTime start,
+                                         @Param("end") OffsetDateTime end,
+                                         @Param("excludeId") UUID excludeId);
+
+    /**
+     * 流式查询开始时间落在 [from, to) 内的预约（用于导出）。
+     * 必须在事务内迭代：PostgreSQL 驱动只有在关闭自动提交时才按 fetchSize 分批拉取，否则会一次性读完全部结果
+     */
+    @Select("SELECT id, user_id, seat_id, create_time, start_time, end_time, check_in_time, check_out_time, state " +
+            "FROM bookings WHERE start_time >= #{from} AND start_time < #{to}")
+    @Options(fetchSize = 1000)
+    Cursor<Booking> selectBookingsStartingBetween(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    /**
+     * 查询尚未签到、且在 after 之后才结束的有效预约（用于重建未签到释放队列）。
+     * 已经结束的历史预约不再释放，也不补记违规
+     */
+    @Select("SELECT id, start_time, check_in_time, state FROM bookings " +
+            "WHERE state IN ('PENDING', 'CONFIRMED') AND check_in_time IS NULL AND end_time > #{after}")
+    List<Booking> selectAwaitingCheckIn(OffsetDateTime after);
+
+    /**
+     * 批量释放未签到的预约：ids 中仍未签到、且开始时间早于 startedBefore 的预约置为 CANCELLED，
+     * 并在同一条语句中为每条写入一条“未在规定时间签到”违规记录。
+     * 已签到、已取消或已改期的预约不受影响
+     *
+     * @param violationIds 违规记录ID（ULID），不少于 ids 的个数；按预约ID顺序依次取用，未用完的丢弃
+     * @return 实际被释放的预约（只含 id、userId、seatId、startTime、endTime）
+     */
+    @Select("<script>" +
+            "WITH released AS (" +
+            "UPDATE bookings SET state = 'CANCELLED' WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            " AND state IN ('PENDING', 'CONFIRMED') AND check_in_time IS NULL AND start_time &lt;= #{startedBefore}" +
+            " RETURNING id, user_id, seat_id, start_time, end_time" +
+            "), recorded AS (" +
+            "INSERT INTO violations(id, user_id, state, type, content, booking_id, create_time) " +
+            "SELECT v.id, r.user_id, 'Violation', '超时', '未在规定时间签到', r.id, now() " +
+            "FROM (SELECT id, user_id, row_number() OVER (ORDER BY id) AS n FROM released) r " +
+            "JOIN unnest(CAST(ARRAY[" +
+            "<foreach collection='violationIds' item='vid' separator=','>#{vid}</foreach>" +
+            "] AS uuid[])) WITH ORDINALITY AS v(id, n) ON v.n = r.n" +
+            ") SELECT id, user_id, seat_id, start_time, end_time FROM released" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    List<Booking> releaseNoShows(@Param("ids") Collection<UUID> ids, @Param("startedBefore") OffsetDateTime startedBefore,
+                                 @Param("violationIds") List<UUID> violationIds);
+
+    /**
+     * 闭馆强制签退一块：最多 limit 条 cutoff 之前开始、仍为 CHECKED_IN 的预约置为 CHECKED_OUT，
+     * 并在同一条语句（同一事务）中为每条写入一条违规记录。
+     * SKIP LOCKED 保证多个节点同时执行时不会重复处理
+     *
+     * @param violationIds 违规记录ID（ULID），不少于 limit 个；按预约ID顺序依次取用，未用完的丢弃
+     * @return 本块签退的预约（只含 id、userId、seatId、startTime、endTime）；少于 limit 条说明已处理完
+     */
+    @Select("<script>" +
+            "WITH batch AS (" +
+            "SELECT id FROM bookings WHERE state = 'CHECKED_IN' AND start_time &lt; #{cutoff} " +
+            "LIMIT #{limit} FOR UPDATE SKIP LOCKED" +
+            "), closed AS (" +
+            "UPDATE bookings b SET state = 'CHECKED_OUT', check_out_time = #{cutoff} FROM batch " +
+            "WHERE b.id = batch.id RETURNING b.id, b.user_id, b.seat_id, b.start_time, b.end_time" +
+            "), recorded AS (" +
+            "INSERT INTO violations(id, user_id, state, type, content, booking_id, create_time) " +
+            "SELECT v.id, c.user_id, 'Violation', '超时', '未在规定时间签退', c.id, now() " +
+            "FROM (SELECT id, user_id, row_number() OVER (ORDER BY id) AS n FROM closed) c " +
+            "JOIN unnest(CAST(ARRAY[" +
+            "<foreach collection='violationIds' item='vid' separator=','>#{vid}</foreach>" +
+            "] AS uuid[])) WITH ORDINALITY AS v(id, n) ON v.n = c.n" +
+            ") SELECT id, user_id, seat_id, start_time, end_time FROM closed" +
+            "</script>")
+    @Options(flushCache = Options.FlushCachePolicy.TRUE)
+    List<Booking> closeOutCheckedIn(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit,
+                                    @Param("violationIds") List<UUID> violationIds);
+
     @Insert("INSERT INTO bookings(id, user_id, seat_id, create_time, start_time, end_time, check_in_time, check_out_time, state) " +
             "VALUES(#{id,jdbcType=OTHER}, #{userId}, #{seatId}, #{createTime}, #{startTime}, #{endTime}, #{checkInTime}, #{checkOutTime}, #{state})")
     void insertBooking(Booking booking);
 
+    /**
+     * 多行 INSERT 批量插入预约；单条语句是原子的，任一行违反排他约束时整条语句失败
+     */
+    @Insert("<script>INSERT INTO bookings(id, user_id, seat_id, create_time, start_time, end_time, check_in_time, check_out_time, state) VALUES " +
+            "<foreach collection='bookings' item='b' separator=','>" +
+            "(#{b.id,jdbcType=OTHER}, #{b.userId}, #{b.seatId}, #{b.createTime}, #{b.startTime}, #{b.endTime}, " +
+            "#{b.checkInTime}, #{b.checkOutTime}, #{b.state})" +
+            "</foreach></script>")
+    int insertBookings(@Param("bookings") List<Booking> bookings);
+
     @Update("UPDATE bookings SET user_id = #{userId}, seat_id = #{seatId}, start_time = #{startTime}, end_time = #{endTime}, " +
             "check_in_time = #{checkInTime}, check_out_time = #{checkOutTime}, state = #{state} WHERE id=#{id,jdbcType=OTHER}")
     void updateBooking(Booking booking);
@@ -12,6 +12,10 @@ public interface RoomMapper {
     @Select("SELECT * FROM rooms WHERE id = #{id}")
     Room selectRoomById(UUID id);
 
+    /** 锁定房间行，调整网格时避免并发修改同一房间重复补齐座位 */
+    @Select("SELECT * FROM rooms WHERE id = #{id} FOR UPDATE")
+    Room selectRoomByIdForUpdate(UUID id);
+
     /** 新增：根据房间名查询房间 */
     @Select("SELECT * FROM rooms WHERE name = #{name} LIMIT 1")
     Room selectRoomByName(String name);
@@ -1,23 +1,71 @@
 package com.zyx.studyroomsystem.mapper;
 
 import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.pojo.SeatOccupancy;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Mapper
 public interface SeatMapper {
 
-    @Select("SELECT id, room_id, row, col FROM seats WHERE id = #{id}")
+    /**
+     * 座位在所属房间的网格内（row、col 均从 0 开始）。
+     * 房间缩小后保留下来的网格外座位（有历史预约，受外键约束不能删除）不出现在座位查询结果中，也不能再被预约
+     */
+    String IN_GRID = "s.row < r.rows AND s.col < r.cols";
+
+    @Select("SELECT s.id, s.room_id, s.row, s.col FROM seats s JOIN rooms r ON r.id = s.room_id " +
+            "WHERE s.id = #{id} AND " + IN_GRID)
     Seat selectSeatById(UUID id);
 
-    @Select("SELECT id, room_id, row, col FROM seats WHERE room_id = #{roomId}")
+    @Select("SELECT s.id, s.room_id, s.row, s.col FROM seats s JOIN rooms r ON r.id = s.room_id " +
+            "WHERE s.room_id = #{roomId} AND " + IN_GRID)
     List<Seat> selectSeatsByRoomId(UUID roomId);
 
+    /**
+     * 一次查询房间内所有座位在 [from, to) 内的占用情况，逐行交给 handler，不在内存中组装列表
+     */
+    @Select("SELECT s.row, s.col, EXISTS(SELECT 1 FROM bookings b " +
+            "WHERE b.seat_id = s.id AND b.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+            "AND b.end_time > #{from} AND b.start_time < #{to}) AS occupied " +
+            "FROM seats s JOIN rooms r ON r.id = s.room_id WHERE s.room_id = #{roomId} AND " + IN_GRID)
+    @ResultType(SeatOccupancy.class)
+    void selectSeatOccupancy(@Param("roomId") UUID roomId,
+                             @Param("from") OffsetDateTime from,
+                             @Param("to") OffsetDateTime to,
+                             ResultHandler<SeatOccupancy> handler);
+
     @Insert("INSERT INTO seats(id, room_id, row, col) VALUES(#{id,jdbcType=OTHER}, #{roomId}, #{row}, #{col})")
     void insertSeat(Seat seat);
 
+    /**
+     * 多行 INSERT 批量插入座位，单条语句的参数不能超过 32767 个（每个座位 4 个）
+     */
+    @Insert("<script>INSERT INTO seats(id, room_id, row, col) VALUES " +
+            "<foreach collection='seats' item='s' separator=','>" +
+            "(#{s.id,jdbcType=OTHER}, #{s.roomId}, #{s.row}, #{s.col})" +
+            "</foreach></script>")
+    int insertSeats(@Param("seats") List<Seat> seats);
+
+    /**
+     * 房间缩小后，网格外的座位中是否还有未结束的有效预约
+     */
+    @Select("SELECT EXISTS(SELECT 1 FROM seats s JOIN bookings b ON b.seat_id = s.id " +
+            "WHERE s.room_id = #{roomId} AND (s.row >= #{rows} OR s.col >= #{cols}) " +
+            "AND b.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') AND b.end_time > now())")
+    boolean existsActiveBookingOutside(@Param("roomId") UUID roomId, @Param("rows") int rows, @Param("cols") int cols);
+
+    /**
+     * 删除网格外没有任何预约记录的座位；有历史预约的座位保留（外键），由 {@link #IN_GRID} 从座位查询中排除
+     */
+    @Delete("DELETE FROM seats s WHERE s.room_id = #{roomId} AND (s.row >= #{rows} OR s.col >= #{cols}) " +
+            "AND NOT EXISTS(SELECT 1 FROM bookings b WHERE b.seat_id = s.id)")
+    int deleteSeatsOutside(@Param("roomId") UUID roomId, @Param("rows") int rows, @Param("cols") int cols);
+
     @Update("UPDATE seats SET room_id = #{roomId}, row = #{row}, col = #{col} WHERE id=#{id,jdbcType=OTHER}")
     void updateSeat(Seat seat);
 
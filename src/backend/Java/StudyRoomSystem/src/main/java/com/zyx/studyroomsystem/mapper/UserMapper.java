@@ -1,6 +1,7 @@
 package com.zyx.studyroomsystem.mapper;
 
 import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.pojo.UserSummary;
 import org.apache.ibatis.annotations.*;
 
 import java.util.List;
@@ -21,6 +22,21 @@ public interface UserMapper {
             "FROM users")
     List<User> selectAllUsers();
 
+    /**
+     * 用户列表键集分页：按 id 倒序，从游标 after（不含）之后取 limit 条，可按角色过滤
+     */
+    @Select("<script>" +
+            "SELECT id, create_time, user_name, display_name, campus_id, role, avatar FROM users " +
+            "<where>" +
+            "<if test='role != null'>role = #{role}</if>" +
+            "<if test='after != null'> AND id &lt; #{after}</if>" +
+            "</where>" +
+            " ORDER BY id DESC LIMIT #{limit}" +
+            "</script>")
+    List<UserSummary> selectUserPage(@Param("role") String role,
+                                     @Param("after") UUID after,
+                                     @Param("limit") int limit);
+
     @Insert("INSERT INTO users(id, create_time, user_name, display_name, password, campus_id, phone, email, role, avatar) " +
             "VALUES(#{id,jdbcType=OTHER}, #{createTime}, #{userName}, #{displayName}, #{password}, #{campusId}, #{phone}, #{email}, #{role}, #{avatar})")
     void insertUser(User user);
@@ -29,6 +45,9 @@ public interface UserMapper {
             "WHERE id=#{id,jdbcType=OTHER}")
     void updateUser(User user);
 
+    @Update("UPDATE users SET password = #{password} WHERE id=#{id,jdbcType=OTHER}")
+    void updatePassword(@Param("id") UUID id, @Param("password") String password);
+
     @Delete("DELETE FROM users WHERE id=#{id,jdbcType=OTHER}")
     void deleteUser(UUID id);
 }
@@ -0,0 +1,29 @@
+package com.zyx.studyroomsystem.mapper;
+
+import com.zyx.studyroomsystem.pojo.Violation;
+import org.apache.ibatis.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Mapper
+public interface ViolationMapper {
+
+    @Select("SELECT id, user_id, state, type, content, booking_id, create_time FROM violations WHERE id = #{id}")
+    Violation selectViolationById(UUID id);
+
+    @Select("SELECT id, user_id, state, type, content, booking_id, create_time FROM violations " +
+            "WHERE user_id = #{userId} ORDER BY create_time DESC")
+    List<Violation> selectViolationsByUserId(UUID userId);
+
+    /**
+     * since 之后的违规（只取用户与时间，按时间顺序），用于启动时重建滚动计数
+     */
+    @Select("SELECT user_id, create_time FROM violations WHERE create_time > #{since} ORDER BY create_time")
+    List<Violation> selectViolationsSince(@Param("since") OffsetDateTime since);
+
+    @Insert("INSERT INTO violations(id, user_id, state, type, content, booking_id, create_time) " +
+            "VALUES (#{id}, #{userId}, #{state}, #{type}, #{content}, #{bookingId}, #{createTime})")
+    int insertViolation(Violation violation);
+}
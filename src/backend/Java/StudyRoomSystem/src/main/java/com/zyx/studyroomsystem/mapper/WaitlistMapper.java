@@ -0,0 +1,69 @@
+package com.zyx.studyroomsystem.mapper;
+
+import com.zyx.studyroomsystem.pojo.WaitlistEntry;
+import org.apache.ibatis.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Mapper
+public interface WaitlistMapper {
+
+    @Select("SELECT id, user_id, seat_id, start_time, end_time, state, create_time, booking_id, promote_time " +
+            "FROM waitlist_entries WHERE id = #{id}")
+    WaitlistEntry selectEntryById(UUID id);
+
+    @Select("SELECT id, user_id, seat_id, start_time, end_time, state, create_time, booking_id, promote_time " +
+            "FROM waitlist_entries WHERE user_id = #{userId} ORDER BY id DESC")
+    List<WaitlistEntry> selectEntriesByUserId(UUID userId);
+
+    /**
+     * 座位上与 [start, end) 重叠、尚未开始的排队中候补，按加入顺序（id 为 ULID，按时间有序）取前 limit 条
+     */
+    @Select("SELECT id, user_id, seat_id, start_time, end_time, state, create_time " +
+            "FROM waitlist_entries WHERE seat_id = #{seatId} AND state = 'WAITING' " +
+            "AND start_time < #{end} AND end_time > #{start} AND start_time > #{now} " +
+            "ORDER BY id LIMIT #{limit}")
+    List<WaitlistEntry> selectCandidates(@Param("seatId") UUID seatId,
+                                         @Param("start") OffsetDateTime start,
+                                         @Param("end") OffsetDateTime end,
+                                         @Param("now") OffsetDateTime now,
+                                         @Param("limit") int limit);
+
+    /**
+     * 每个有排队中候补的座位上，候补覆盖的整体时间范围（用于启动时补做停机期间错过的转正）
+     */
+    @Select("SELECT seat_id, min(start_time) AS start_time, max(end_time) AS end_time FROM waitlist_entries " +
+            "WHERE state = 'WAITING' AND start_time > #{now} GROUP BY seat_id")
+    List<WaitlistEntry> selectWaitingRanges(@Param("now") OffsetDateTime now);
+
+    /**
+     * 同一座位上与该候补时段重叠、比它更早加入的排队人数
+     */
+    @Select("SELECT count(*) FROM waitlist_entries WHERE seat_id = #{seatId} AND state = 'WAITING' " +
+            "AND id < #{id} AND start_time < #{endTime} AND end_time > #{startTime}")
+    int countAhead(WaitlistEntry entry);
+
+    @Insert("INSERT INTO waitlist_entries(id, user_id, seat_id, start_time, end_time, state, create_time) " +
+            "VALUES (#{id}, #{userId}, #{seatId}, #{startTime}, #{endTime}, #{state}, #{createTime})")
+    int insertEntry(WaitlistEntry entry);
+
+    /**
+     * 领取候补：只有仍在排队的条目能被置为 PROMOTED，并发的释放方对同一条目只有一个能成功
+     *
+     * @return 1 表示领取成功，0 表示已被领取或已取消
+     */
+    @Update("UPDATE waitlist_entries SET state = 'PROMOTED', booking_id = #{bookingId}, promote_time = now() " +
+            "WHERE id = #{id} AND state = 'WAITING'")
+    int claim(@Param("id") UUID id, @Param("bookingId") UUID bookingId);
+
+    @Update("UPDATE waitlist_entries SET state = 'CANCELLED' WHERE id = #{id} AND state = 'WAITING'")
+    int cancel(UUID id);
+
+    /**
+     * 时段已开始的排队中候补置为 EXPIRED
+     */
+    @Update("UPDATE waitlist_entries SET state = 'EXPIRED' WHERE state = 'WAITING' AND start_time <= #{now}")
+    int expireStarted(@Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,85 @@
+package com.zyx.studyroomsystem.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis 插件：记录每条 Mapper 语句的执行耗时（指标 mybatis.statement）。
+ *
+ * 标签：statement 为 Mapper 接口名.方法名，command 为 select/insert/update/delete，
+ * exception 为失败时的异常类名（成功为 none）。Timer 按 (语句, 异常) 缓存，
+ * 热路径上只有一次 nanoTime 差值和一次 Map 查找。
+ *
+ * 游标查询（流式导出）只统计执行语句、拿到游标的耗时，不包含之后逐行读取的时间。
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    private static final String SUCCESS = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    /** "statementId|exception" -> Timer */
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public MapperMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long begin = System.nanoTime();
+        String exception = SUCCESS;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            // Invocation.proceed 通过反射调用，原始异常包装在 InvocationTargetException 中
+            Throwable cause = e instanceof InvocationTargetException ite ? ite.getTargetException() : e;
+            exception = cause.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(statement, exception).record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MappedStatement statement, String exception) {
+        return timers.computeIfAbsent(statement.getId() + "|" + exception, key -> Timer.builder("mybatis.statement")
+                .description("Mapper 语句执行耗时")
+                .tag("statement", shortName(statement.getId()))
+                .tag("command", statement.getSqlCommandType().name().toLowerCase())
+                .tag("exception", exception)
+                .register(meterRegistry));
+    }
+
+    /**
+     * com.zyx.studyroomsystem.mapper.BookingMapper.insertBooking -> BookingMapper.insertBooking
+     */
+    static String shortName(String statementId) {
+        int method = statementId.lastIndexOf('.');
+        int type = method > 0 ? statementId.lastIndexOf('.', method - 1) : -1;
+        return statementId.substring(type + 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.zyx.studyroomsystem.pojo;
+
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+public class Blacklist {
+
+    private UUID id;
+
+    private UUID userId;
+
+    private String type;
+
+    private String reason;
+
+    private OffsetDateTime createTime;
+
+    private OffsetDateTime expireTime;
+}
@@ -0,0 +1,16 @@
+package com.zyx.studyroomsystem.pojo;
+
+import lombok.Data;
+
+/**
+ * 座位在某个时间段内是否被占用（房间占用位图查询的单行结果）
+ */
+@Data
+public class SeatOccupancy {
+
+    private Integer row;
+
+    private Integer col;
+
+    private boolean occupied;
+}
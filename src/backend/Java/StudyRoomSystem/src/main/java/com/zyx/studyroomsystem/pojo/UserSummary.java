@@ -0,0 +1,27 @@
+package com.zyx.studyroomsystem.pojo;
+
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 用户列表项（只包含列表展示需要的列，不含密码哈希和联系方式）
+ */
+@Data
+public class UserSummary {
+
+    private UUID id;
+
+    private OffsetDateTime createTime;
+
+    private String userName;
+
+    private String displayName;
+
+    private String campusId;
+
+    private String role;
+
+    private String avatar;
+}
@@ -0,0 +1,32 @@
+package com.zyx.studyroomsystem.pojo;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+public class Violation {
+
+    private UUID id;
+
+    @NotNull(message = "用户ID不能为空")
+    private UUID userId;
+
+    private String state;
+
+    @NotNull(message = "违规类型不能为空")
+    @Pattern(regexp = "^(超时|强制取消|管理员)$", message = "违规类型只能是 超时、强制取消 或 管理员")
+    private String type;
+
+    @NotBlank(message = "违规内容不能为空")
+    private String content;
+
+    @NotNull(message = "预约ID不能为空")
+    private UUID bookingId;
+
+    private OffsetDateTime createTime;
+}
@@ -0,0 +1,38 @@
+package com.zyx.studyroomsystem.pojo;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+public class WaitlistEntry {
+
+    private UUID id;
+
+    @NotNull(message = "用户ID不能为空")
+    private UUID userId;
+
+    @NotNull(message = "座位ID不能为空")
+    private UUID seatId;
+
+    @NotNull(message = "开始时间不能为空")
+    @Future(message = "开始时间必须是未来时间")
+    private OffsetDateTime startTime;
+
+    @NotNull(message = "结束时间不能为空")
+    @Future(message = "结束时间必须是未来时间")
+    private OffsetDateTime endTime;
+
+    /** WAITING / PROMOTED / CANCELLED / EXPIRED */
+    private String state;
+
+    private OffsetDateTime createTime;
+
+    /** 候补成功后生成的预约ID */
+    private UUID bookingId;
+
+    private OffsetDateTime promoteTime;
+}
@@ -0,0 +1,239 @@
+package com.zyx.studyroomsystem.room;
+
+import com.zyx.studyroomsystem.booking.SeatStateChangedEvent;
+import com.zyx.studyroomsystem.exception.TooManyRequestsException;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.service.SeatService;
+import com.zyx.studyroomsystem.waitlist.WaitlistPromotedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 房间座位状态的实时推送（Server-Sent Events）。
+ *
+ * 预约状态变化时按座位所属房间扇出，只推送给订阅了该房间的连接，前端无需轮询座位列表和预约接口。
+ *
+ * 约定：
+ * - 发布方只做非阻塞的入队；每个连接有独立的有界队列，由虚拟线程逐个写出，慢客户端不会拖慢发布方和其他连接
+ * - 队列积压超过上限的连接直接断开，客户端（EventSource）自动重连后应重新拉取座位图
+ * - 本节点连接数达到上限时拒绝新连接（429）
+ * - 事务内发布的事件在提交后才推送，回滚的变更不会被推送
+ * - 事件只推送给当前节点上的连接；多节点部署时需要各节点之间转发事件
+ * - 候补转正以 waitlist 事件推送到座位所在房间，只带候补条目ID与新预约ID，不带用户信息；
+ *   客户端用加入候补时拿到的条目ID认领自己的通知
+ * - 每个事件只 build() 一次，各连接共享构建结果；SseEventBuilder 每次 build() 都会向自身追加内容，不能在连接间共享后各自 build
+ */
+@Component
+public class RoomEventHub {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomEventHub.class);
+
+    private final SeatService seatService;
+    private final RoomEventProperties config;
+    private final Counter droppedCounter;
+
+    /** 房间ID → 订阅该房间的连接 */
+    private final Map<UUID, Set<Subscriber>> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    /** 写出在虚拟线程上执行，阻塞在慢客户端上的写不会占用平台线程 */
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("room-events-", 0).factory());
+
+    public RoomEventHub(SeatService seatService, RoomEventProperties roomEventProperties, MeterRegistry meterRegistry) {
+        this.seatService = seatService;
+        this.config = roomEventProperties;
+        if (config.maxConnections() < 1 || config.queueCapacity() < 1) {
+            throw new IllegalArgumentException("room-events.max-connections 与 queue-capacity 必须大于 0");
+        }
+        this.droppedCounter = Counter.builder("room.events.dropped")
+                .description("因消费过慢被断开的推送连接数")
+                .register(meterRegistry);
+        Gauge.builder("room.events.connections", connections, AtomicInteger::get)
+                .description("当前推送连接数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 订阅房间的座位状态变化
+     *
+     * @throws TooManyRequestsException 本节点连接数已达上限
+     */
+    public SseEmitter subscribe(UUID roomId) {
+        if (connections.incrementAndGet() > config.maxConnections()) {
+            connections.decrementAndGet();
+            throw new TooManyRequestsException("实时推送连接数已达上限，请稍后重试");
+        }
+        SseEmitter emitter = new SseEmitter(config.timeout().toMillis());
+        Subscriber subscriber = new Subscriber(roomId, emitter, config.queueCapacity());
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        rooms.computeIfAbsent(roomId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        // 首条消息让客户端确认连接已建立，之后再拉取座位图，避免漏掉中间的变化
+        subscriber.offer(SseEmitter.event().name("ready").reconnectTime(3000).data(Map.of("roomId", roomId)).build());
+        return emitter;
+    }
+
+    /**
+     * 预约状态变化后按房间扇出；事务内发布的事件在提交后执行，无事务时立即执行
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStateChanged(SeatStateChangedEvent event) {
+        if (rooms.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("seatId", event.seatId());
+        data.put("bookingId", event.bookingId());
+        data.put("change", event.change());
+        data.put("startTime", event.startTime());
+        data.put("endTime", event.endTime());
+        data.put("at", OffsetDateTime.now());
+        publish(event.seatId(), "seat", data);
+    }
+
+    /**
+     * 候补转正后通知排队的用户；转正在事务提交后发布，无事务时立即执行
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWaitlistPromoted(WaitlistPromotedEvent event) {
+        if (rooms.isEmpty()) {
+            return;
+        }
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("entryId", event.entryId());
+        data.put("bookingId", event.bookingId());
+        data.put("seatId", event.seatId());
+        data.put("startTime", event.startTime());
+        data.put("endTime", event.endTime());
+        data.put("at", OffsetDateTime.now());
+        publish(event.seatId(), "waitlist", data);
+    }
+
+    /**
+     * 推送给座位所在房间的所有连接
+     */
+    private void publish(UUID seatId, String name, Map<String, Object> data) {
+        Seat seat = seatService.getSeatById(seatId);
+        if (seat == null) {
+            return;
+        }
+        Set<Subscriber> subscribers = rooms.get(seat.getRoomId());
+        if (subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> message = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(name)
+                .data(data, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    /**
+     * 心跳：保活连接，写失败的连接随即被清理
+     */
+    @Scheduled(fixedDelayString = "${room-events.heartbeat:15s}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        rooms.values().forEach(subscribers -> subscribers.forEach(s -> s.offer(ping)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rooms.values().forEach(subscribers -> subscribers.forEach(s -> s.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    /**
+     * 单个推送连接：有界队列 + 同一时刻最多一个写出任务
+     */
+    private final class Subscriber {
+
+        private final UUID roomId;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(UUID roomId, SseEmitter emitter, int capacity) {
+            this.roomId = roomId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void offer(Set<DataWithMediaType> message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                droppedCounter.increment();
+                log.debug("房间 {} 的推送连接消费过慢，已断开", roomId);
+                close();
+                // complete 会与阻塞中的写出争用同一把锁，放到虚拟线程上执行，不阻塞发布方
+                sender.execute(emitter::complete);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> message;
+                while (!closed.get() && (message = queue.poll()) != null) {
+                    try {
+                        emitter.send(message);
+                    } catch (Exception e) {
+                        // 客户端已断开
+                        emitter.completeWithError(e);
+                        close();
+                        return;
+                    }
+                }
+                draining.set(false);
+                // 释放标记后若又有新消息入队且没有其他写出任务接手，继续写出
+            } while (!queue.isEmpty() && !closed.get() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            connections.decrementAndGet();
+            rooms.computeIfPresent(roomId, (id, subscribers) -> {
+                subscribers.remove(this);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.zyx.studyroomsystem.room;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 房间事件推送配置（application.yml 中的 room-events.*）
+ *
+ * @param maxConnections 本节点最多同时保持的推送连接数，超出时返回 429，默认 2000
+ * @param queueCapacity  每个连接待发送事件的上限，消费过慢积压超过该值时断开连接（客户端重连后重新拉取座位图），默认 256
+ * @param timeout        单个连接的最长保持时间，到期后由客户端自动重连，默认 30m
+ * @param heartbeat      心跳间隔，用于保活并及时发现已断开的客户端，默认 15s
+ */
+@ConfigurationProperties(prefix = "room-events")
+public record RoomEventProperties(@DefaultValue("2000") int maxConnections,
+                                  @DefaultValue("256") int queueCapacity,
+                                  @DefaultValue("30m") Duration timeout,
+                                  @DefaultValue("15s") Duration heartbeat) {
+}
@@ -0,0 +1,12 @@
+package com.zyx.studyroomsystem.room;
+
+import java.util.UUID;
+
+/**
+ * 房间的座位布局发生变化（房间行列数修改、房间删除、座位增删改），依赖座位布局的内存结构需要失效。
+ *
+ * @param roomId 变化后座位所在的房间，未知时为 null
+ * @param seatId 变化的座位，房间级变化时为 null；座位被移到其他房间时，原房间通过座位ID定位
+ */
+public record RoomLayoutChangedEvent(UUID roomId, UUID seatId) {
+}
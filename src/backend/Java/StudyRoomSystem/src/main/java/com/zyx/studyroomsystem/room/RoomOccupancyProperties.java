@@ -0,0 +1,26 @@
+package com.zyx.studyroomsystem.room;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 房间占用位图配置（application.yml 中的 room-occupancy.*）
+ *
+ * @param enabled     是否启用；关闭时座位占用查询全部查库，默认 true。DATABASE 准入模式（多节点）下始终不启用
+ * @param slot        时段粒度，从房间开放时间起按该粒度切分一天，默认 15m
+ * @param zone        划分“一天”和解释房间开放/关闭时间所用的时区，默认 Asia/Shanghai
+ * @param horizonDays 只为今天起这么多天内的日期建立位图，更早或更晚的查询直接查库，默认 14
+ * @param maxMemory   位图占用内存的上限，超出时淘汰最久未使用的房间-日期，默认 64MB
+ * @param ttl         位图加载后的最长保留时间，无法增量定位的变化（如预约换到其他房间）最多滞后这么久，默认 10m
+ */
+@ConfigurationProperties(prefix = "room-occupancy")
+public record RoomOccupancyProperties(@DefaultValue("true") boolean enabled,
+                                      @DefaultValue("15m") Duration slot,
+                                      @DefaultValue("Asia/Shanghai") String zone,
+                                      @DefaultValue("14") int horizonDays,
+                                      @DefaultValue("64MB") DataSize maxMemory,
+                                      @DefaultValue("10m") Duration ttl) {
+}
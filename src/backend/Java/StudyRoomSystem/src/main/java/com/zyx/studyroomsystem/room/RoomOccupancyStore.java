@@ -0,0 +1,379 @@
+package com.zyx.studyroomsystem.room;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zyx.studyroomsystem.booking.BookingProperties;
+import com.zyx.studyroomsystem.booking.SeatStateChangedEvent;
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.pojo.Room;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.web.RoomAvailability;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 房间按天的座位占用位图（内存）。
+ *
+ * 把房间一天的开放时间按 room-occupancy.slot 切成若干时段，每个时段一个按座位排列（行优先，与 RoomAvailability 相同）的位集，
+ * 某座位在该时段内与任一有效预约重叠则对应位为 1。查询 [from, to) 内的空闲座位只需把覆盖的时段位集按字（64 个座位）相或，
+ * 不再扫描预约行；50×50 的房间开放 15 小时、每 15 分钟一个时段，一天约 20KB。
+ *
+ * 约定：
+ * - 只有 from/to 落在时段边界上、且在同一天开放时间内的查询才由位图回答（此时结果与查库完全一致），其余返回 null 由调用方查库
+ * - 位图在首次查询时按房间-日期从数据库加载，之后随预约变化增量更新：新建只置位；释放时重新读取该座位当天的有效预约；
+ *   修改（原时间未知）时丢弃新座位所在房间的位图
+ * - 加载期间若有预约写入，加载结果只用于回答本次查询，不保留
+ * - 位图只随本节点的写入更新，因此仅在单节点的 INDEX/STRIPED 准入模式下启用；DATABASE（多节点）模式下全部查库
+ * - 预约换到其他房间的座位时，原房间的位图无法定位，由 room-occupancy.ttl 兜底：位图加载后最多保留这么久
+ * - 总内存按 room-occupancy.max-memory 限制，超出时淘汰最久未使用的条目
+ */
+@Component
+public class RoomOccupancyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomOccupancyStore.class);
+
+    private final RoomMapper roomMapper;
+    private final SeatMapper seatMapper;
+    private final BookingMapper bookingMapper;
+    private final RoomOccupancyProperties config;
+    /** 配置启用且准入模式为单节点 */
+    private final boolean enabled;
+    private final ZoneId zone;
+    private final long slotMillis;
+
+    private final Cache<Key, DayOccupancy> days;
+    /** 座位ID → 房间ID，只包含已加载位图的房间，用于把预约事件定位到房间 */
+    private final Map<UUID, UUID> roomBySeat = new ConcurrentHashMap<>();
+    /** 预约/布局写入次数，用于判断加载期间是否有写入 */
+    private final AtomicLong writes = new AtomicLong();
+
+    public RoomOccupancyStore(RoomMapper roomMapper, SeatMapper seatMapper, BookingMapper bookingMapper,
+                              RoomOccupancyProperties roomOccupancyProperties, BookingProperties bookingProperties,
+                              MeterRegistry meterRegistry) {
+        this.roomMapper = roomMapper;
+        this.seatMapper = seatMapper;
+        this.bookingMapper = bookingMapper;
+        this.config = roomOccupancyProperties;
+        this.enabled = config.enabled()
+                && bookingProperties.admission().mode() != BookingProperties.AdmissionMode.DATABASE;
+        if (config.enabled() && !enabled) {
+            log.info("DATABASE 准入模式下不启用房间占用位图，座位占用查询全部查库");
+        }
+        this.zone = ZoneId.of(config.zone());
+        this.slotMillis = config.slot().toMillis();
+        if (slotMillis < 60_000) {
+            throw new IllegalArgumentException("room-occupancy.slot 不能小于 1 分钟");
+        }
+        this.days = Caffeine.newBuilder()
+                .maximumWeight(config.maxMemory().toBytes())
+                .weigher((Key key, DayOccupancy day) -> day.bytes())
+                .expireAfterWrite(config.ttl())
+                .recordStats()
+                .build();
+        // 与 Spring 缓存的 cache.* 指标保持相同的标签键，否则 Prometheus 会拒绝后注册的一方
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "roomOccupancy",
+                "cache.manager", "roomOccupancyStore", "name", "roomOccupancy");
+        Gauge.builder("room.occupancy.memory", days,
+                        c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("房间占用位图占用的内存")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 由位图回答房间在 [from, to) 内的座位占用。
+     * 未启用（含 DATABASE 准入模式）、日期不在 [今天, 今天 + horizonDays] 内、跨天、超出开放时间或 from/to 不在时段边界上时返回 null，由调用方查库
+     */
+    public RoomAvailability availability(UUID roomId, OffsetDateTime from, OffsetDateTime to) {
+        if (!enabled) {
+            return null;
+        }
+        LocalDate date = from.atZoneSameInstant(zone).toLocalDate();
+        LocalDate today = LocalDate.now(zone);
+        if (date.isBefore(today) || date.isAfter(today.plusDays(config.horizonDays()))) {
+            return null;
+        }
+        DayOccupancy day = get(new Key(roomId, date));
+        return day == null ? null : day.availability(roomId, from, to);
+    }
+
+    /**
+     * 预约变化后增量更新已加载的位图；事务内发布的事件在提交后执行（读取数据库时能看到这次变化）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatStateChanged(SeatStateChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        writes.incrementAndGet();
+        UUID roomId = roomBySeat.get(event.seatId());
+        if (roomId == null) {
+            return;
+        }
+        if (event.change() == SeatStateChangedEvent.Change.UPDATED) {
+            invalidateRoom(roomId); // 修改很少发生，原时间未知
+            return;
+        }
+        if (event.startTime() == null || event.endTime() == null) {
+            return;
+        }
+        try {
+            if (event.change() == SeatStateChangedEvent.Change.RELEASED) {
+                forEachLoadedDay(roomId, event, day -> reloadSeat(day, event.seatId()));
+            } else {
+                forEachLoadedDay(roomId, event, day -> day.mark(event.seatId(), event.startTime(), event.endTime()));
+            }
+        } catch (RuntimeException e) {
+            // 位图更新失败不影响预约本身，丢弃该房间的位图，下次查询重新加载
+            log.warn("房间 {} 的占用位图更新失败，已丢弃: {}", roomId, e.getMessage());
+            invalidateRoom(roomId);
+        }
+    }
+
+    /**
+     * 座位布局变化后丢弃相关房间的位图
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomLayoutChanged(RoomLayoutChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        writes.incrementAndGet();
+        if (event.seatId() != null) {
+            UUID previousRoom = roomBySeat.remove(event.seatId());
+            if (previousRoom != null) {
+                invalidateRoom(previousRoom);
+            }
+        }
+        if (event.roomId() != null) {
+            invalidateRoom(event.roomId());
+        }
+    }
+
+    private void invalidateRoom(UUID roomId) {
+        days.asMap().keySet().removeIf(key -> key.roomId().equals(roomId));
+        roomBySeat.values().removeIf(roomId::equals);
+    }
+
+    /**
+     * 预约覆盖的每一天中已加载的位图
+     */
+    private void forEachLoadedDay(UUID roomId, SeatStateChangedEvent event, Consumer<DayOccupancy> action) {
+        LocalDate last = event.endTime().atZoneSameInstant(zone).toLocalDate();
+        for (LocalDate date = event.startTime().atZoneSameInstant(zone).toLocalDate();
+             !date.isAfter(last); date = date.plusDays(1)) {
+            DayOccupancy day = days.getIfPresent(new Key(roomId, date));
+            if (day != null) {
+                action.accept(day);
+            }
+        }
+    }
+
+    /**
+     * 按数据库重建单个座位当天的位：持有写锁查询，避免与同一座位上并发的新建/释放交错
+     */
+    private void reloadSeat(DayOccupancy day, UUID seatId) {
+        day.lock.writeLock().lock();
+        try {
+            day.clear(seatId);
+            for (Booking b : bookingMapper.selectActiveOverlapping(seatId, day.open, day.close)) {
+                day.mark(seatId, b.getStartTime(), b.getEndTime());
+            }
+        } finally {
+            day.lock.writeLock().unlock();
+        }
+    }
+
+    private DayOccupancy get(Key key) {
+        DayOccupancy day = days.getIfPresent(key);
+        if (day != null) {
+            return day;
+        }
+        long before = writes.get();
+        day = load(key);
+        if (day == null) {
+            return null;
+        }
+        days.put(key, day);
+        day.cells.keySet().forEach(seatId -> roomBySeat.put(seatId, key.roomId()));
+        // 加载期间有写入，可能没有反映在位图中（结果与一次查库等价）；本次照常使用，但不保留
+        if (writes.get() != before) {
+            days.asMap().remove(key, day);
+        }
+        return day;
+    }
+
+    private DayOccupancy load(Key key) {
+        Room room = roomMapper.selectRoomById(key.roomId());
+        if (room == null || !room.getCloseTime().isAfter(room.getOpenTime())) {
+            return null; // 跨午夜开放的房间不建立位图
+        }
+        OffsetDateTime open = key.date().atTime(room.getOpenTime()).atZone(zone).toOffsetDateTime();
+        OffsetDateTime close = key.date().atTime(room.getCloseTime()).atZone(zone).toOffsetDateTime();
+        DayOccupancy day = new DayOccupancy(room.getRows(), room.getCols(), open, close, slotMillis);
+        for (Seat seat : seatMapper.selectSeatsByRoomId(key.roomId())) {
+            day.addSeat(seat);
+        }
+        for (Booking b : bookingMapper.selectActiveBookingsByRoomOverlapping(key.roomId(), open, close)) {
+            day.mark(b.getSeatId(), b.getStartTime(), b.getEndTime());
+        }
+        return day;
+    }
+
+    private record Key(UUID roomId, LocalDate date) {
+    }
+
+    /**
+     * 单个房间一天的位图：occupied 按时段排列，每个时段 cellWords 个 long，第 i 个座位位置对应第 i 位
+     */
+    private static final class DayOccupancy {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final int rows;
+        private final int cols;
+        private final OffsetDateTime open;
+        private final OffsetDateTime close;
+        private final long openMillis;
+        private final long lengthMillis;
+        private final long slotMillis;
+        private final int slots;
+        private final int cellWords;
+        /** 存在座位的位置 */
+        private final long[] seats;
+        private final long[] occupied;
+        /** 座位ID → 位置下标，网格外的座位不登记 */
+        private final Map<UUID, Integer> cells = new HashMap<>();
+
+        DayOccupancy(int rows, int cols, OffsetDateTime open, OffsetDateTime close, long slotMillis) {
+            this.rows = rows;
+            this.cols = cols;
+            this.open = open;
+            this.close = close;
+            this.openMillis = open.toInstant().toEpochMilli();
+            this.lengthMillis = close.toInstant().toEpochMilli() - openMillis;
+            this.slotMillis = slotMillis;
+            this.slots = (int) ((lengthMillis + slotMillis - 1) / slotMillis);
+            this.cellWords = (rows * cols + 63) >>> 6;
+            this.seats = new long[cellWords];
+            this.occupied = new long[slots * cellWords];
+        }
+
+        int bytes() {
+            return (seats.length + occupied.length) * Long.BYTES + cells.size() * 64 + 128;
+        }
+
+        /** 只在加载时调用，此时尚未发布 */
+        void addSeat(Seat seat) {
+            int r = seat.getRow();
+            int c = seat.getCol();
+            if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                return; // 查询已排除网格外的座位，这里只防御异常坐标
+            }
+            int cell = r * cols + c;
+            seats[cell >>> 6] |= 1L << cell;
+            cells.put(seat.getId(), cell);
+        }
+
+        /**
+         * 把与 [start, end) 重叠的时段标记为占用
+         */
+        void mark(UUID seatId, OffsetDateTime start, OffsetDateTime end) {
+            Integer cell = cells.get(seatId);
+            if (cell == null) {
+                return;
+            }
+            int first = (int) Math.max(0, Math.floorDiv(start.toInstant().toEpochMilli() - openMillis, slotMillis));
+            int last = (int) Math.min(slots, ceilDiv(end.toInstant().toEpochMilli() - openMillis, slotMillis));
+            int word = cell >>> 6;
+            long bit = 1L << cell;
+            lock.writeLock().lock();
+            try {
+                for (int s = first; s < last; s++) {
+                    occupied[s * cellWords + word] |= bit;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /** 调用方需持有写锁 */
+        void clear(UUID seatId) {
+            Integer cell = cells.get(seatId);
+            if (cell == null) {
+                return;
+            }
+            int word = cell >>> 6;
+            long mask = ~(1L << cell);
+            for (int s = 0; s < slots; s++) {
+                occupied[s * cellWords + word] &= mask;
+            }
+        }
+
+        /**
+         * from/to 必须落在时段边界上（to 也可以是关闭时间），否则返回 null
+         */
+        RoomAvailability availability(UUID roomId, OffsetDateTime from, OffsetDateTime to) {
+            long a = from.toInstant().toEpochMilli() - openMillis;
+            long b = to.toInstant().toEpochMilli() - openMillis;
+            if (a < 0 || b > lengthMillis || a % slotMillis != 0 || (b % slotMillis != 0 && b != lengthMillis)) {
+                return null;
+            }
+            int first = (int) (a / slotMillis);
+            int last = (int) ceilDiv(b, slotMillis);
+            long[] busy = new long[cellWords];
+            lock.readLock().lock();
+            try {
+                for (int s = first; s < last; s++) {
+                    int base = s * cellWords;
+                    for (int w = 0; w < cellWords; w++) {
+                        busy[w] |= occupied[base + w];
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            int seatCount = 0;
+            int occupiedCount = 0;
+            for (int w = 0; w < cellWords; w++) {
+                busy[w] &= seats[w];
+                seatCount += Long.bitCount(seats[w]);
+                occupiedCount += Long.bitCount(busy[w]);
+            }
+            return new RoomAvailability(roomId, rows, cols, from, to, seatCount, occupiedCount,
+                    toBytes(seats, rows * cols), toBytes(busy, rows * cols));
+        }
+
+        /** 按小端序展开后第 i 位正好位于字节 i / 8 的第 i % 8 位，与 RoomAvailability 的约定一致 */
+        private static byte[] toBytes(long[] words, int bits) {
+            ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.asLongBuffer().put(words);
+            byte[] bytes = new byte[(bits + 7) / 8];
+            buffer.get(bytes);
+            return bytes;
+        }
+
+        private static long ceilDiv(long x, long y) {
+            return -Math.floorDiv(-x, y);
+        }
+    }
+}
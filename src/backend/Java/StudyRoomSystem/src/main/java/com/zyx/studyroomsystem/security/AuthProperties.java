@@ -0,0 +1,52 @@
+package com.zyx.studyroomsystem.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 认证相关配置（application.yml 中的 auth.*）
+ *
+ * @param mode           请求认证模式，默认 LOOKUP
+ * @param principalCache 已认证用户（principal）缓存配置
+ * @param password       密码哈希配置
+ */
+@ConfigurationProperties(prefix = "auth")
+public record AuthProperties(@DefaultValue("LOOKUP") AuthMode mode,
+                             @DefaultValue PrincipalCache principalCache,
+                             @DefaultValue Password password) {
+
+    /**
+     * @param ttl     缓存条目的存活时间，也是用户信息变更后最长的生效延迟，默认 60s
+     * @param maxSize 最多缓存的用户数，默认 10000
+     */
+    public record PrincipalCache(@DefaultValue("60s") Duration ttl,
+                                 @DefaultValue("10000") long maxSize) {
+    }
+
+    /**
+     * @param strength      BCrypt 强度（cost），默认 10；调高后旧哈希在用户下次登录时自动升级
+     * @param threads       哈希线程数，0 表示 CPU 核数
+     * @param queueCapacity 等待队列长度，队列满时直接返回 429，默认 64
+     */
+    public record Password(@DefaultValue("10") int strength,
+                           @DefaultValue("0") int threads,
+                           @DefaultValue("64") int queueCapacity) {
+    }
+
+    /**
+     * 请求认证模式。
+     * 两种模式都会先校验签名、有效期，并检查 {@link TokenRevocationList}。
+     */
+    public enum AuthMode {
+        /**
+         * 直接由 Token 中的用户名、用户ID、角色构建认证信息，不查询 users 表。
+         * 吊销表只在当前节点内存中、重启即丢失：其他节点或重启后，被降级/删除的用户在 Token 有效期内仍可访问，
+         * 只适合单节点部署，需显式开启
+         */
+        STATELESS,
+        /** 按用户名加载用户（经 PrincipalCache 缓存），角色以数据库为准，变更最多滞后缓存 ttl；默认模式 */
+        LOOKUP
+    }
+}
@@ -1,5 +1,6 @@
 package com.zyx.studyroomsystem.security;
 
+import com.zyx.studyroomsystem.pojo.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.lang.NonNull;
@@ -17,10 +19,18 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
+    private final AuthProperties.AuthMode mode;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                                   PrincipalCache principalCache, TokenRevocationList revocationList,
+                                   AuthProperties authProperties) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
+        this.mode = authProperties.mode();
     }
 
     /**
@@ -33,20 +43,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain)
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization"); // 获取请求头
-        String username = null;
-        String jwt = null;
+        TokenClaims claims = null;
 
-        // 判断是否带有 Bearer Token
+        // 判断是否带有 Bearer Token，解析并校验（签名 + 有效期只校验这一次）
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7); // 去掉 "Bearer "
-            username = jwtUtil.extractUsername(jwt); // 从 Token 中解析用户名
+            claims = jwtUtil.parseToken(authHeader.substring(7)); // 去掉 "Bearer "
         }
 
-        // 如果解析出用户名，且当前上下文没有认证信息
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            // 校验 Token 是否有效
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+        // 如果 Token 有效、未被吊销，且当前上下文没有认证信息
+        if (claims != null && !revocationList.isRevoked(claims)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = loadPrincipal(claims);
+            // 用户已被删除（LOOKUP 模式）时不设置认证信息，按未登录处理
+            if (userDetails != null) {
                 // 创建认证对象，放入 SecurityContext
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -56,5 +65,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 放行请求，继续执行后续过滤器链
         filterChain.doFilter(request, response);
     }
-}
 
+    /**
+     * STATELESS 模式直接由 Token 内容构建用户，不访问数据库；
+     * LOOKUP 模式（或缺少用户ID的旧 Token）优先从缓存获取用户信息，未命中才查询数据库；用户不存在时返回 null
+     */
+    private UserDetails loadPrincipal(TokenClaims claims) {
+        if (mode == AuthProperties.AuthMode.STATELESS && claims.userId() != null && claims.role() != null) {
+            User user = new User();
+            user.setId(claims.userId());
+            user.setUserName(claims.username());
+            user.setRole(claims.role().replaceFirst("^ROLE_", ""));
+            return new SecurityUser(user);
+        }
+        try {
+            return principalCache.get(claims.username(), userDetailsService::loadUserByUsername);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.zyx.studyroomsystem.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -7,7 +10,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -16,10 +21,11 @@ public class JwtUtil {
     // Token 有效期：1小时
     private final long expiration = 3600_000;
 
-    // 获取签名用的 Key 对象（替代旧的 String 写法）
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
+    // 签名用的 Key 和解析器只构建一次，二者都是不可变、线程安全的
+    private final Key signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
 
     /**
      * 生成 JWT Token
@@ -27,46 +33,49 @@ public class JwtUtil {
      * @return JWT 字符串
      */
     public String generateToken(UserDetails userDetails) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(userDetails.getUsername()) // 设置用户名
+                .claim("uid", userDetails instanceof SecurityUser su ? su.getId().toString() : null) // 用户ID
                 .claim("role", userDetails.getAuthorities().iterator().next().getAuthority()) // 保存角色信息
-                .setIssuedAt(new Date()) // 签发时间
-                .setExpiration(new Date(System.currentTimeMillis() + expiration)) // 过期时间
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // 使用 HS256 算法签名
+                .claim("ver", now) // Token 版本（签发毫秒时间戳，iat 只精确到秒）
+                .setIssuedAt(new Date(now)) // 签发时间
+                .setExpiration(new Date(now + expiration)) // 过期时间
+                .signWith(signingKey, SignatureAlgorithm.HS256) // 使用 HS256 算法签名
                 .compact();
     }
 
     /**
-     * 从 Token 中解析出用户名
+     * Token 有效期
      */
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public Duration getTokenTtl() {
+        return Duration.ofMillis(expiration);
     }
 
     /**
-     * 校验 Token 是否有效
+     * 解析并校验 Token（签名 + 有效期），每个 Token 只解析一次
+     * @return 校验通过的 Token 内容；Token 非法或已过期时返回 null
      */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public TokenClaims parseToken(String token) {
+        try {
+            // 过期的 Token 会在这里抛出 ExpiredJwtException
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return claims.getSubject() == null ? null : toTokenClaims(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            // 包括 uid/ver 类型或格式不正确
+            return null;
+        }
     }
 
-    /**
-     * 判断 Token 是否过期
-     */
-    private boolean isTokenExpired(String token) {
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
+    private static TokenClaims toTokenClaims(Claims claims) {
+        String uid = claims.get("uid", String.class);
+        Long version = claims.get("ver", Long.class);
+        return new TokenClaims(
+                claims.getSubject(),
+                uid == null ? null : UUID.fromString(uid),
+                claims.get("role", String.class),
+                version == null ? 0L : version,
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
     }
 }
-
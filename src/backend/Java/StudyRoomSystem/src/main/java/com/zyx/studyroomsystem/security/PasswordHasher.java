@@ -0,0 +1,124 @@
+package com.zyx.studyroomsystem.security;
+
+import com.zyx.studyroomsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希执行器。
+ *
+ * BCrypt 是刻意设计的 CPU 密集运算，登录高峰（如换课时段）直接在 Web 线程上计算会占满 Tomcat 线程。
+ * 这里把所有哈希/校验放到固定大小的线程池中执行，等待队列有上限，
+ * 队列满时立即抛出 {@link TooManyRequestsException}（HTTP 429），其余接口不受影响。
+ *
+ * 暴露的指标：
+ * - auth.password.hash{op}：单次哈希/校验耗时（不含排队）
+ * - auth.password.queue：排队等待的任务数
+ * - auth.password.rejected：被拒绝的请求数
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, AuthProperties authProperties, MeterRegistry meterRegistry) {
+        AuthProperties.Password config = authProperties.password();
+        int threads = config.threads() > 0 ? config.threads() : Runtime.getRuntime().availableProcessors();
+        if (config.queueCapacity() < 1) {
+            throw new IllegalArgumentException("auth.password.queue-capacity 必须大于 0");
+        }
+        this.passwordEncoder = passwordEncoder;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.queueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("密码哈希/校验耗时")
+                .tag("op", "matches")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("密码哈希/校验耗时")
+                .tag("op", "encode")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("等待密码哈希的任务数")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("因哈希队列已满被拒绝的请求数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校验原始密码与哈希是否匹配
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * 计算密码哈希
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * 哈希强度低于当前配置时返回 true，需要重新哈希（纯解析，不占用线程池）
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("登录/注册请求过多，请稍后重试");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("密码校验被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,59 @@
+package com.zyx.studyroomsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 已认证用户（principal）缓存，按用户名索引。
+ *
+ * JwtAuthenticationFilter 每个请求都要重建 SecurityUser，
+ * 命中缓存时不再查询数据库；用户被修改/删除时由 UserServiceImpl 显式失效，
+ * 其余情况（如其他节点上的修改）最多延迟 auth.principal-cache.ttl 生效。
+ *
+ * 命中率等指标见 /actuator/metrics/cache.gets?tag=cache:principal
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(AuthProperties authProperties, MeterRegistry meterRegistry) {
+        AuthProperties.PrincipalCache config = authProperties.principalCache();
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(config.ttl())
+                .maximumSize(config.maxSize())
+                .recordStats()
+                .build();
+        // 与 Spring 缓存的 cache.* 指标保持相同的标签键，否则 Prometheus 会拒绝后注册的一方
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal",
+                "cache.manager", "principalCache", "name", "principal");
+    }
+
+    /**
+     * 获取用户名对应的 principal，未命中时调用 loader 加载（同一用户名并发请求只加载一次）
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    /**
+     * 按用户名失效
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * 按用户ID失效（用户名可能已被修改，需要遍历缓存找到旧条目）
+     */
+    public void evictUser(UUID userId) {
+        cache.asMap().values().removeIf(u -> u instanceof SecurityUser su && userId.equals(su.getId()));
+    }
+}
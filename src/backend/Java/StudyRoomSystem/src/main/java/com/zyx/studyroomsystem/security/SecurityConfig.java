@@ -1,7 +1,9 @@
 package com.zyx.studyroomsystem.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
@@ -24,6 +26,10 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 // 配置请求权限
                 .authorizeHttpRequests(auth -> auth
+                        // 异步响应（流式导出、实时推送）结束时的再次分派：原始请求已经鉴权，
+                        // 无状态 JWT 过滤器不会在再次分派时重新执行，不放行会在响应已提交后报 Access Denied
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                         // 放行 auth 模块的三个接口
                         .requestMatchers("/api/v1/auth/register").permitAll()
                         .requestMatchers("/api/v1/auth/login").permitAll()
@@ -34,6 +40,13 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/swagger-ui.html").permitAll()
 
+                        // 健康检查与 Prometheus 抓取不带 Token；反向代理已拒绝 /actuator（scripts/nginx/conf.d），只能在内网访问
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+
+                        // 数据导出仅限管理员
+                        .requestMatchers("/api/v1/booking/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/v1/violation").hasRole("ADMIN")
+
                         //测试
                         .requestMatchers("/test/**").permitAll()
 
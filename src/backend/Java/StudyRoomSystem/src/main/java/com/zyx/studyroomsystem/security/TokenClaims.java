@@ -0,0 +1,18 @@
+package com.zyx.studyroomsystem.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 已通过签名和有效期校验的 Token 内容
+ *
+ * @param username  用户名（subject）
+ * @param userId    用户ID（旧版本签发的 Token 中没有，为 null）
+ * @param role      签发时的角色权限，如 ROLE_USER
+ * @param version   Token 版本，即签发时间戳（毫秒），用于吊销检查；旧 Token 为 0
+ * @param issuedAt  签发时间
+ * @param expiresAt 过期时间
+ */
+public record TokenClaims(String username, UUID userId, String role, long version,
+                          Instant issuedAt, Instant expiresAt) {
+}
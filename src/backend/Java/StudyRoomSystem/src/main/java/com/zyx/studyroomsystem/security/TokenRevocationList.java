@@ -0,0 +1,46 @@
+package com.zyx.studyroomsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Token 吊销表（内存）。
+ *
+ * 记录 userId -> 吊销时间（毫秒），该时间之前签发的 Token 一律失效。
+ * 用户名或角色变更、用户被删除时由 UserServiceImpl 写入；
+ * 超过 Token 有效期后旧 Token 已自然过期，条目随之淘汰，表的大小只与近期变更的用户数有关。
+ *
+ * 注意：吊销记录只保存在当前节点内存中，重启或多节点部署时需配合 LOOKUP 认证模式或缩短 Token 有效期。
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Cache<UUID, Long> revokedBefore;
+
+    public TokenRevocationList(JwtUtil jwtUtil) {
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(jwtUtil.getTokenTtl())
+                .build();
+    }
+
+    /**
+     * 吊销该用户此刻之前签发的所有 Token
+     */
+    public void revokeAll(UUID userId) {
+        revokedBefore.put(userId, System.currentTimeMillis());
+    }
+
+    /**
+     * 判断 Token 是否已被吊销（纯内存查询）
+     */
+    public boolean isRevoked(TokenClaims claims) {
+        if (claims.userId() == null) {
+            return false;
+        }
+        Long before = revokedBefore.getIfPresent(claims.userId());
+        return before != null && claims.version() < before;
+    }
+}
@@ -1,7 +1,14 @@
 package com.zyx.studyroomsystem.service;
 
+import com.zyx.studyroomsystem.booking.ExportFormat;
 import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.web.BatchBookingRequest;
+import com.zyx.studyroomsystem.web.BatchBookingResult;
+import com.zyx.studyroomsystem.web.CursorPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,6 +24,25 @@ public interface BookingService {
      */
     List<Booking> getBookingsByUserId(UUID userId);
 
+    /**
+     * 分页查询用户的预约（键集分页，从新到旧）
+     *
+     * @param state  状态过滤，为 null 时不过滤
+     * @param from   时间段开始，为 null 时不限
+     * @param to     时间段结束，为 null 时不限
+     * @param cursor 上一页返回的 nextCursor，为 null 时从第一页开始
+     * @param limit  每页条数
+     */
+    CursorPage<Booking> getBookingPageByUserId(UUID userId, String state, OffsetDateTime from, OffsetDateTime to,
+                                               UUID cursor, int limit);
+
+    /**
+     * 把开始时间在 [from, to) 内的预约流式导出到输出流，内存占用与导出行数无关
+     *
+     * @return 导出的行数
+     */
+    long exportBookings(OffsetDateTime from, OffsetDateTime to, ExportFormat format, OutputStream out) throws IOException;
+
     /**
      * 根据座位ID查询该座位的所有预约
      */
@@ -27,6 +53,13 @@ public interface BookingService {
      */
     void addBooking(Booking booking);
 
+    /**
+     * 批量新增同一用户、同一座位的多个预约：一次检查全部时段，用一条多行 INSERT 写入
+     *
+     * @return 每个时段的结果，顺序与 bookings 相同
+     */
+    BatchBookingResult addBookings(List<Booking> bookings, BatchBookingRequest.Mode mode);
+
     /**
      * 更新预约信息
      */
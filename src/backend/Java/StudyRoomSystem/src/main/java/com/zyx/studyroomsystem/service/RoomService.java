@@ -1,7 +1,9 @@
 package com.zyx.studyroomsystem.service;
 
 import com.zyx.studyroomsystem.pojo.Room;
+import com.zyx.studyroomsystem.web.RoomAvailability;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,12 +20,13 @@ public interface RoomService {
     List<Room> getAllRooms();
 
     /**
-     * 新增房间
+     * 新增房间，并在同一事务内按 rows × cols 生成全部座位，返回生成的座位数
      */
-    void addRoom(Room room);
+    int addRoom(Room room);
 
     /**
-     * 更新房间信息
+     * 更新房间信息。行列数变化时在同一事务内补齐新网格内缺少的座位、删除网格外没有预约记录的座位；
+     * 网格外的座位仍有未结束的有效预约时抛出 ResourceConflictException
      */
     void updateRoom(Room room);
 
@@ -36,4 +39,10 @@ public interface RoomService {
      * 根据房间名称判断房间是否存在
      */
     boolean existsByName(String name);
+
+    /**
+     * 查询房间在时间段内的座位占用位图，房间不存在时返回 null。
+     * from/to 落在 room-occupancy.slot 时段边界上的查询由内存位图回答，其余查库
+     */
+    RoomAvailability getAvailability(UUID id, OffsetDateTime from, OffsetDateTime to);
 }
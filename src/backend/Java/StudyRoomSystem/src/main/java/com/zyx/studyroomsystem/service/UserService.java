@@ -1,6 +1,8 @@
 package com.zyx.studyroomsystem.service;
 
 import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.pojo.UserSummary;
+import com.zyx.studyroomsystem.web.CursorPage;
 import com.zyx.studyroomsystem.web.RegisterDto;
 
 import java.util.List;
@@ -23,6 +25,15 @@ public interface UserService {
      */
     List<User> getAllUsers();
 
+    /**
+     * 分页查询用户列表（键集分页，不含密码）
+     *
+     * @param role   角色过滤，为 null 时不过滤
+     * @param cursor 上一页返回的 nextCursor，为 null 时从第一页开始
+     * @param limit  每页条数
+     */
+    CursorPage<UserSummary> getUserPage(String role, UUID cursor, int limit);
+
     /**
      * 新增用户
      */
@@ -43,6 +54,12 @@ public interface UserService {
      */
     boolean validateLogin(String userName, String password);
 
+    /**
+     * 用户登录认证：校验用户名和密码，成功返回用户；
+     * 密码哈希强度低于当前配置时顺带升级哈希
+     */
+    User authenticate(String userName, String password);
+
     /**
      * 用户注册校验
      */
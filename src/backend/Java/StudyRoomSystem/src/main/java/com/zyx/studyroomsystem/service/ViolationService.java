@@ -0,0 +1,35 @@
+package com.zyx.studyroomsystem.service;
+
+import com.zyx.studyroomsystem.pojo.Violation;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface ViolationService {
+
+    /**
+     * 根据违规记录ID查询
+     */
+    Violation getViolationById(UUID id);
+
+    /**
+     * 根据用户ID查询该用户的所有违规记录（从新到旧）
+     */
+    List<Violation> getViolationsByUserId(UUID userId);
+
+    /**
+     * 用户当前统计窗口内的违规次数
+     */
+    int getRecentViolationCount(UUID userId);
+
+    /**
+     * 用户黑名单到期时间；不在黑名单中时返回 null
+     */
+    OffsetDateTime getBannedUntil(UUID userId);
+
+    /**
+     * 新增违规记录，并更新该用户的违规计数
+     */
+    void addViolation(Violation violation);
+}
@@ -0,0 +1,36 @@
+package com.zyx.studyroomsystem.service;
+
+import com.zyx.studyroomsystem.pojo.WaitlistEntry;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface WaitlistService {
+
+    /**
+     * 根据候补ID查询
+     */
+    WaitlistEntry getEntryById(UUID id);
+
+    /**
+     * 根据用户ID查询该用户的所有候补（从新到旧）
+     */
+    List<WaitlistEntry> getEntriesByUserId(UUID userId);
+
+    /**
+     * 加入候补队列；该时段恰好空闲时直接转为预约
+     *
+     * @return 加入后的条目（state 为 WAITING 或 PROMOTED）
+     */
+    WaitlistEntry join(WaitlistEntry entry);
+
+    /**
+     * 排在该候补前面的人数
+     */
+    int getPosition(WaitlistEntry entry);
+
+    /**
+     * 取消仍在排队的候补
+     */
+    void cancel(UUID id);
+}
@@ -1,24 +1,85 @@
 package com.zyx.studyroomsystem.service.impl;
 
+import com.zyx.studyroomsystem.booking.BookingExportWriter;
+import com.zyx.studyroomsystem.booking.BookingMetrics;
+import com.zyx.studyroomsystem.booking.BookingMetrics.ConflictSource;
+import com.zyx.studyroomsystem.booking.BookingProperties;
+import com.zyx.studyroomsystem.booking.BookingReleasedEvent;
+import com.zyx.studyroomsystem.booking.BookingStates;
+import com.zyx.studyroomsystem.booking.SeatBookingIndex;
+import com.zyx.studyroomsystem.booking.SeatStateChangedEvent;
+import com.zyx.studyroomsystem.booking.ExportFormat;
+import com.zyx.studyroomsystem.booking.NoShowReleaser;
+import com.zyx.studyroomsystem.booking.StripedSeatLock;
 import com.zyx.studyroomsystem.exception.ResourceConflictException;
+import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
+import com.zyx.studyroomsystem.exception.UserBannedException;
 import com.zyx.studyroomsystem.mapper.BookingMapper;
 import com.zyx.studyroomsystem.pojo.Booking;
 import com.zyx.studyroomsystem.service.BookingService;
+import com.zyx.studyroomsystem.service.SeatService;
+import com.zyx.studyroomsystem.violation.ViolationLedger;
+import com.zyx.studyroomsystem.web.BatchBookingRequest;
+import com.zyx.studyroomsystem.web.BatchBookingResult;
+import com.zyx.studyroomsystem.web.BatchBookingResult.SlotResult;
+import com.zyx.studyroomsystem.web.BatchBookingResult.Status;
+import com.zyx.studyroomsystem.web.CursorPage;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    /** PostgreSQL exclusion_violation，对应 bookings_seat_period_excl 约束冲突 */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private static final String CONFLICT_MESSAGE = "该座位在所选时间段已被预约";
+
     private final BookingMapper bookingMapper;
+    private final SeatBookingIndex seatBookingIndex;
+    private final SeatService seatService;
+    private final BookingProperties bookingProperties;
+    /** 仅 STRIPED 模式下存在 */
+    private final StripedSeatLock stripedSeatLock;
+    private final BookingExportWriter bookingExportWriter;
+    private final NoShowReleaser noShowReleaser;
+    private final ViolationLedger violationLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingMetrics bookingMetrics;
 
     // 构造注入
-    public BookingServiceImpl(BookingMapper bookingMapper) {
+    public BookingServiceImpl(BookingMapper bookingMapper, SeatBookingIndex seatBookingIndex, SeatService seatService,
+                              BookingProperties bookingProperties, ObjectProvider<StripedSeatLock> stripedSeatLock,
+                              BookingExportWriter bookingExportWriter, NoShowReleaser noShowReleaser,
+                              ViolationLedger violationLedger, ApplicationEventPublisher eventPublisher,
+                              BookingMetrics bookingMetrics) {
         this.bookingMapper = bookingMapper;
+        this.seatBookingIndex = seatBookingIndex;
+        this.seatService = seatService;
+        this.bookingProperties = bookingProperties;
+        this.stripedSeatLock = stripedSeatLock.getIfAvailable();
+        this.bookingExportWriter = bookingExportWriter;
+        this.noShowReleaser = noShowReleaser;
+        this.violationLedger = violationLedger;
+        this.eventPublisher = eventPublisher;
+        this.bookingMetrics = bookingMetrics;
     }
 
     @Override
@@ -31,6 +92,23 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.selectBookingsByUserId(userId);
     }
 
+    @Override
+    public CursorPage<Booking> getBookingPageByUserId(UUID userId, String state, OffsetDateTime from, OffsetDateTime to,
+                                                      UUID cursor, int limit) {
+        // 多取一条用于判断是否还有下一页
+        List<Booking> rows = bookingMapper.selectBookingPageByUserId(userId, state, from, to, cursor, limit + 1);
+        return CursorPage.of(rows, limit, Booking::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true) // 游标需要在同一个连接/事务内迭代
+    public long exportBookings(OffsetDateTime from, OffsetDateTime to, ExportFormat format, OutputStream out)
+            throws IOException {
+        try (Cursor<Booking> cursor = bookingMapper.selectBookingsStartingBetween(from, to)) {
+            return bookingExportWriter.write(cursor, format, out);
+        }
+    }
+
     @Override
     public List<Booking> getBookingsBySeatId(UUID seatId) {
         return bookingMapper.selectBookingsBySeatId(seatId);
@@ -38,7 +116,14 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public void addBooking(Booking booking) {
-        // 1. 校验时间合法性
+        // 0. 黑名单中的用户不能预约（只查内存黑名单，不产生查询）
+        OffsetDateTime bannedUntil = violationLedger.bannedUntil(booking.getUserId());
+        if (bannedUntil != null) {
+            throw new UserBannedException("违规次数过多，暂停预约至 " + bannedUntil);
+        }
+
+        // 1. 校验座位与时间合法性
+        requireSeat(booking.getSeatId());
         OffsetDateTime start = booking.getStartTime();
         OffsetDateTime end = booking.getEndTime();
 
@@ -46,33 +131,349 @@ public class BookingServiceImpl implements BookingService {
             throw new ResourceConflictException("预约时间不合法：结束时间必须晚于开始时间");
         }
 
-        // 转换成 Instant，方便比较（避免时区问题）
-        Instant startInstant = start.toInstant();
-        Instant endInstant = end.toInstant();
-
         // 2. 校验时间冲突：同一座位在同一时间段不能重复预约
-        List<Booking> existing = bookingMapper.selectBookingsBySeatId(booking.getSeatId());
-        for (Booking b : existing) {
-            Instant existingStart = b.getStartTime().toInstant();
-            Instant existingEnd = b.getEndTime().toInstant();
-
-            boolean overlap = !(endInstant.isBefore(existingStart) || startInstant.isAfter(existingEnd));
-            if (overlap) {
-                throw new ResourceConflictException("该座位在所选时间段已被预约");
+        // INDEX 模式下由内存区间索引原子地完成“检查 + 占用”，提前拒绝冲突请求；
+        // 最终由数据库排他约束保证，多节点部署（DATABASE 模式）直接依赖约束
+        if (stripedSeatLock != null) {
+            addBookingStriped(booking);
+            noShowReleaser.register(booking);
+            bookingMetrics.created();
+            publishChange(booking, SeatStateChangedEvent.Change.BOOKED);
+            return;
+        }
+        boolean useIndex = useIndex();
+        if (useIndex && !seatBookingIndex.tryReserve(booking)) {
+            bookingMetrics.conflict(ConflictSource.INDEX);
+            throw new ResourceConflictException(CONFLICT_MESSAGE);
+        }
+
+        // 3. 插入预约，失败时释放已占用的区间
+        try {
+            bookingMapper.insertBooking(booking);
+        } catch (RuntimeException e) {
+            if (useIndex) {
+                seatBookingIndex.release(booking.getId());
+            }
+            throw translateConflict(e);
+        }
+
+        // 4. 登记签到截止时间，超时未签到自动释放
+        noShowReleaser.register(booking);
+        bookingMetrics.created();
+        publishChange(booking, SeatStateChangedEvent.Change.BOOKED);
+    }
+
+    @Override
+    public BatchBookingResult addBookings(List<Booking> bookings, BatchBookingRequest.Mode mode) {
+        if (bookings.isEmpty()) {
+            return new BatchBookingResult(0, List.of());
+        }
+        UUID seatId = bookings.get(0).getSeatId();
+        OffsetDateTime bannedUntil = violationLedger.bannedUntil(bookings.get(0).getUserId());
+        if (bannedUntil != null) {
+            throw new UserBannedException("违规次数过多，暂停预约至 " + bannedUntil);
+        }
+        requireSeat(seatId);
+        boolean allOrNothing = mode != BatchBookingRequest.Mode.BEST_EFFORT;
+
+        // 1. 校验时间，合法的时段按开始时间排序后统一检查
+        Map<UUID, SlotResult> results = new HashMap<>();
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Booking> candidates = new ArrayList<>(bookings.size());
+        for (Booking b : bookings) {
+            if (b.getStartTime() == null || b.getEndTime() == null || !b.getEndTime().isAfter(b.getStartTime())) {
+                results.put(b.getId(), SlotResult.of(b, Status.INVALID, "结束时间必须晚于开始时间"));
+            } else if (!b.getStartTime().isAfter(now)) {
+                results.put(b.getId(), SlotResult.of(b, Status.INVALID, "开始时间必须是未来时间"));
+            } else {
+                candidates.add(b);
+            }
+        }
+        candidates.sort(Comparator.comparing(Booking::getStartTime));
+
+        // 2. 检查冲突并插入；STRIPED 模式下整个过程持有座位分段锁
+        List<Booking> inserted;
+        if (allOrNothing && candidates.size() < bookings.size()) {
+            inserted = List.of();
+        } else if (stripedSeatLock != null) {
+            inserted = stripedSeatLock.withLock(seatId,
+                    () -> insertBatch(admitBatch(seatId, candidates, allOrNothing, results), allOrNothing, results));
+        } else {
+            inserted = insertBatch(admitBatch(seatId, candidates, allOrNothing, results), allOrNothing, results);
+        }
+
+        for (Booking b : inserted) {
+            results.put(b.getId(), SlotResult.of(b, Status.BOOKED, null));
+            noShowReleaser.register(b);
+            bookingMetrics.created();
+            publishChange(b, SeatStateChangedEvent.Change.BOOKED);
+        }
+        List<SlotResult> ordered = new ArrayList<>(bookings.size());
+        for (Booking b : bookings) {
+            SlotResult result = results.get(b.getId());
+            ordered.add(result != null ? result : SlotResult.of(b, Status.SKIPPED, "其他时段预约失败，本批次未预约"));
+        }
+        return new BatchBookingResult(inserted.size(), ordered);
+    }
+
+    /**
+     * 批量冲突检查，冲突的时段记入 results。
+     * INDEX 模式在内存索引中原子地占用；其余模式一次查询取出整个时间范围内的已有预约，在内存中逐个判断
+     *
+     * @return 可以插入的时段；ALL_OR_NOTHING 模式下有冲突时为空
+     */
+    private List<Booking> admitBatch(UUID seatId, List<Booking> candidates, boolean allOrNothing,
+                                     Map<UUID, SlotResult> results) {
+        boolean[] conflicts;
+        ConflictSource source;
+        if (useIndex()) {
+            conflicts = seatBookingIndex.tryReserveAll(candidates, allOrNothing);
+            source = ConflictSource.INDEX;
+        } else {
+            conflicts = conflictsInDatabase(seatId, candidates);
+            source = stripedSeatLock != null ? ConflictSource.STRIPED : ConflictSource.DATABASE;
+        }
+        List<Booking> admitted = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Booking b = candidates.get(i);
+            if (conflicts[i]) {
+                bookingMetrics.conflict(source);
+                results.put(b.getId(), SlotResult.of(b, Status.CONFLICT, CONFLICT_MESSAGE));
+            } else {
+                admitted.add(b);
+            }
+        }
+        return allOrNothing && admitted.size() < candidates.size() ? List.of() : admitted;
+    }
+
+    /**
+     * 按开始时间顺序逐个判断候选时段是否与已占用区间重叠，不冲突的时段加入已占用区间（批次内部互相重叠也算冲突）。
+     * 已占用区间互不重叠（排他约束保证），因此只需看开始时间不晚于 start 的最后一个区间和 start 之后的第一个区间
+     */
+    private boolean[] conflictsInDatabase(UUID seatId, List<Booking> candidates) {
+        boolean[] conflicts = new boolean[candidates.size()];
+        if (candidates.isEmpty()) {
+            return conflicts;
+        }
+        OffsetDateTime from = candidates.get(0).getStartTime();
+        OffsetDateTime to = candidates.stream().map(Booking::getEndTime).max(Comparator.naturalOrder()).orElseThrow();
+        TreeMap<Instant, Instant> occupied = new TreeMap<>();
+        for (Booking b : bookingMapper.selectActiveOverlapping(seatId, from, to)) {
+            occupied.put(b.getStartTime().toInstant(), b.getEndTime().toInstant());
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            Instant start = candidates.get(i).getStartTime().toInstant();
+            Instant end = candidates.get(i).getEndTime().toInstant();
+            Map.Entry<Instant, Instant> before = occupied.floorEntry(start);
+            Instant after = occupied.higherKey(start);
+            if ((before != null && before.getValue().isAfter(start)) || (after != null && after.isBefore(end))) {
+                conflicts[i] = true;
+            } else {
+                occupied.put(start, end);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * 一条多行 INSERT 写入全部时段。
+     * 被数据库排他约束拒绝（其他节点并发写入，或区间索引与数据库不一致）时：
+     * ALL_OR_NOTHING 模式整批失败；BEST_EFFORT 模式逐条重试，只有冲突的时段失败
+     *
+     * @return 实际插入的预约
+     */
+    private List<Booking> insertBatch(List<Booking> admitted, boolean allOrNothing, Map<UUID, SlotResult> results) {
+        if (admitted.isEmpty()) {
+            return admitted;
+        }
+        boolean useIndex = useIndex();
+        try {
+            bookingMapper.insertBookings(admitted);
+            return admitted;
+        } catch (RuntimeException e) {
+            if (useIndex) {
+                admitted.forEach(b -> seatBookingIndex.release(b.getId()));
+            }
+            if (allOrNothing || !isExclusionViolation(e)) {
+                throw translateConflict(e);
             }
         }
+        List<Booking> inserted = new ArrayList<>(admitted.size());
+        for (Booking b : admitted) {
+            if (useIndex && !seatBookingIndex.tryReserve(b)) {
+                bookingMetrics.conflict(ConflictSource.INDEX);
+                results.put(b.getId(), SlotResult.of(b, Status.CONFLICT, CONFLICT_MESSAGE));
+                continue;
+            }
+            try {
+                bookingMapper.insertBooking(b);
+                inserted.add(b);
+            } catch (RuntimeException e) {
+                if (useIndex) {
+                    seatBookingIndex.release(b.getId());
+                }
+                RuntimeException translated = translateConflict(e);
+                if (!(translated instanceof ResourceConflictException)) {
+                    throw translated;
+                }
+                results.put(b.getId(), SlotResult.of(b, Status.CONFLICT, CONFLICT_MESSAGE));
+            }
+        }
+        return inserted;
+    }
 
-        // 3. 插入预约
-        bookingMapper.insertBooking(booking);
+    /**
+     * STRIPED 模式：持有座位分段锁，串行执行“查库检查冲突 + 插入”
+     */
+    private void addBookingStriped(Booking booking) {
+        stripedSeatLock.withLock(booking.getSeatId(), () -> {
+            if (BookingStates.isActive(booking.getState()) && hasConflictInDatabase(booking)) {
+                bookingMetrics.conflict(ConflictSource.STRIPED);
+                throw new ResourceConflictException(CONFLICT_MESSAGE);
+            }
+            try {
+                bookingMapper.insertBooking(booking);
+            } catch (RuntimeException e) {
+                throw translateConflict(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 查询数据库判断该座位在 [start, end) 内是否已有有效预约（只取时间段重叠的行）
+     */
+    private boolean hasConflictInDatabase(Booking booking) {
+        return bookingMapper.existsActiveOverlap(booking.getSeatId(), booking.getStartTime(), booking.getEndTime());
+    }
+
+    /**
+     * STRIPED 模式：有效状态的修改同样持有座位分段锁，查库检查冲突时排除预约自身
+     */
+    private void updateBookingStriped(Booking booking) {
+        stripedSeatLock.withLock(booking.getSeatId(), () -> {
+            if (bookingMapper.existsActiveOverlapExcluding(booking.getSeatId(), booking.getStartTime(),
+                    booking.getEndTime(), booking.getId())) {
+                bookingMetrics.conflict(ConflictSource.STRIPED);
+                throw new ResourceConflictException(CONFLICT_MESSAGE);
+            }
+            bookingMapper.updateBooking(booking);
+            return null;
+        });
+    }
+
+    /**
+     * INDEX 模式：有效状态的修改由区间索引检查冲突（排除预约自身），写库在该座位的索引锁内执行
+     */
+    private void updateBookingIndexed(Booking booking) {
+        if (!seatBookingIndex.tryReschedule(booking, () -> bookingMapper.updateBooking(booking))) {
+            bookingMetrics.conflict(ConflictSource.INDEX);
+            throw new ResourceConflictException(CONFLICT_MESSAGE);
+        }
     }
 
     @Override
     public void updateBooking(Booking booking) {
-        bookingMapper.updateBooking(booking);
+        boolean active = BookingStates.isActive(booking.getState());
+        if (active) {
+            requireSeat(booking.getSeatId());
+        }
+        try {
+            // 取消/签退只会释放时段，无需加锁检查
+            if (stripedSeatLock != null && active) {
+                updateBookingStriped(booking);
+            } else if (useIndex() && active) {
+                updateBookingIndexed(booking);
+            } else {
+                bookingMapper.updateBooking(booking);
+            }
+        } catch (RuntimeException e) {
+            throw translateConflict(e);
+        }
+        // 取消/签退的预约移出索引；有效状态的修改已在 updateBookingIndexed 中同步
+        if (useIndex() && !active) {
+            seatBookingIndex.release(booking.getId());
+        }
+        // 改期后按新的开始时间登记，旧条目到期时会被 UPDATE 条件过滤
+        noShowReleaser.register(booking);
+        // 取消或提前签退后，剩余时段交给候补队列
+        if (!BookingStates.isActive(booking.getState())) {
+            publishChange(booking, SeatStateChangedEvent.Change.RELEASED);
+            publishReleased(booking);
+        } else if (BookingStates.CHECKED_IN.equals(booking.getState())) {
+            bookingMetrics.checkedIn();
+            publishChange(booking, SeatStateChangedEvent.Change.CHECKED_IN);
+        } else {
+            publishChange(booking, SeatStateChangedEvent.Change.UPDATED);
+        }
     }
 
     @Override
     public void deleteBooking(UUID id) {
+        Booking booking = bookingMapper.selectBookingById(id);
         bookingMapper.deleteBooking(id);
+        if (useIndex()) {
+            seatBookingIndex.release(id);
+        }
+        if (booking != null && BookingStates.isActive(booking.getState())) {
+            publishChange(booking, SeatStateChangedEvent.Change.RELEASED);
+            publishReleased(booking);
+        }
+    }
+
+    /**
+     * 发布座位状态变化，供房间实时推送使用
+     */
+    private void publishChange(Booking booking, SeatStateChangedEvent.Change change) {
+        eventPublisher.publishEvent(new SeatStateChangedEvent(booking.getSeatId(), booking.getId(), change,
+                booking.getStartTime(), booking.getEndTime()));
+    }
+
+    /**
+     * 发布预约释放事件，释放的时段为 [max(开始时间, 当前时间), 结束时间)；已结束的预约不发布
+     */
+    private void publishReleased(Booking booking) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (booking.getSeatId() == null || booking.getEndTime() == null || !booking.getEndTime().isAfter(now)) {
+            return;
+        }
+        OffsetDateTime start = booking.getStartTime() != null && booking.getStartTime().isAfter(now)
+                ? booking.getStartTime() : now;
+        eventPublisher.publishEvent(new BookingReleasedEvent(booking.getSeatId(), start, booking.getEndTime()));
+    }
+
+    /**
+     * 座位必须存在且在房间网格内；经座位缓存查询，通常不访问数据库
+     */
+    private void requireSeat(UUID seatId) {
+        if (seatId == null || seatService.getSeatById(seatId) == null) {
+            throw new ResourceNotFoundException("座位不存在: " + seatId);
+        }
+    }
+
+    private boolean useIndex() {
+        return bookingProperties.admission().mode() == BookingProperties.AdmissionMode.INDEX;
+    }
+
+    /**
+     * 把数据库排他约束冲突转换为 ResourceConflictException，其余异常原样返回
+     */
+    private RuntimeException translateConflict(RuntimeException e) {
+        if (isExclusionViolation(e)) {
+            bookingMetrics.conflict(ConflictSource.DATABASE);
+            return new ResourceConflictException(CONFLICT_MESSAGE, e);
+        }
+        return e;
+    }
+
+    private static boolean isExclusionViolation(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
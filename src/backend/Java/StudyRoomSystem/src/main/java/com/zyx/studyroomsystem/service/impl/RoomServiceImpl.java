@@ -1,50 +1,198 @@
 package com.zyx.studyroomsystem.service.impl;
 
+import com.zyx.studyroomsystem.exception.ResourceConflictException;
 import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
 import com.zyx.studyroomsystem.pojo.Room;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.pojo.SeatOccupancy;
+import com.zyx.studyroomsystem.room.RoomLayoutChangedEvent;
+import com.zyx.studyroomsystem.room.RoomOccupancyStore;
 import com.zyx.studyroomsystem.service.RoomService;
+import com.zyx.studyroomsystem.web.RoomAvailability;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 public class RoomServiceImpl implements RoomService {
 
+    /** 多行 INSERT 每条语句的座位数（每个座位 4 个参数，PostgreSQL 单条语句最多 32767 个参数） */
+    private static final int SEAT_INSERT_CHUNK = 1000;
+
     private final RoomMapper roomMapper;
+    private final SeatMapper seatMapper;
+    private final RoomOccupancyStore roomOccupancyStore;
+    private final ApplicationEventPublisher eventPublisher;
+    /** 自身的代理：类内调用 getRoomById 需经过代理才能走缓存 */
+    private final ObjectProvider<RoomService> self;
 
     // 构造注入
-    public RoomServiceImpl(RoomMapper roomMapper) {
+    public RoomServiceImpl(RoomMapper roomMapper, SeatMapper seatMapper, RoomOccupancyStore roomOccupancyStore,
+                           ApplicationEventPublisher eventPublisher, ObjectProvider<RoomService> self) {
         this.roomMapper = roomMapper;
+        this.seatMapper = seatMapper;
+        this.roomOccupancyStore = roomOccupancyStore;
+        this.eventPublisher = eventPublisher;
+        this.self = self;
     }
 
     @Override
+    @Cacheable(cacheNames = "room", key = "#id")
     public Room getRoomById(UUID id) {
         return roomMapper.selectRoomById(id);
     }
 
     @Override
+    @Cacheable(cacheNames = "rooms", key = "'all'")
     public List<Room> getAllRooms() {
         return roomMapper.selectAllRooms();
     }
 
     @Override
-    public void addRoom(Room room) {
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "rooms", allEntries = true),
+            @CacheEvict(cacheNames = "roomSeats", key = "#room.id")
+    })
+    public int addRoom(Room room) {
         roomMapper.insertRoom(room);
+        return insertSeats(room.getId(), room.getRows(), room.getCols(), new boolean[room.getRows() * room.getCols()]);
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "rooms", allEntries = true),
+            @CacheEvict(cacheNames = "room", key = "#room.id"),
+            @CacheEvict(cacheNames = "roomSeats", key = "#room.id"),
+            @CacheEvict(cacheNames = "seat", allEntries = true)
+    })
     public void updateRoom(Room room) {
+        Room existing = roomMapper.selectRoomByIdForUpdate(room.getId());
         roomMapper.updateRoom(room);
+        // 开放时间或网格变化都会改变占用位图的布局，提交后失效
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(room.getId(), null));
+        if (existing == null
+                || (existing.getRows().equals(room.getRows()) && existing.getCols().equals(room.getCols()))) {
+            return;
+        }
+        int rows = room.getRows();
+        int cols = room.getCols();
+        if (seatMapper.existsActiveBookingOutside(room.getId(), rows, cols)) {
+            throw new ResourceConflictException("缩小后网格外的座位仍有未结束的预约，请先处理这些预约");
+        }
+        seatMapper.deleteSeatsOutside(room.getId(), rows, cols);
+
+        // 只补齐新网格内缺少的位置，已有座位（及其预约）保持不变
+        boolean[] present = new boolean[rows * cols];
+        for (Seat seat : seatMapper.selectSeatsByRoomId(room.getId())) {
+            if (seat.getRow() < rows && seat.getCol() < cols) {
+                present[seat.getRow() * cols + seat.getCol()] = true;
+            }
+        }
+        insertSeats(room.getId(), rows, cols, present);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "rooms", allEntries = true),
+            @CacheEvict(cacheNames = "room", key = "#id"),
+            // 座位随房间级联删除
+            @CacheEvict(cacheNames = "roomSeats", key = "#id"),
+            @CacheEvict(cacheNames = "seat", allEntries = true)
+    })
     public boolean deleteRoom(UUID id) {
-        return roomMapper.deleteRoom(id) > 0; // MyBatis 返回受影响行数
+        boolean deleted = roomMapper.deleteRoom(id) > 0; // MyBatis 返回受影响行数
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(id, null));
+        return deleted;
+    }
+
+    /**
+     * 为网格中 present 为 false 的位置生成座位，ULID 批量生成、按行优先顺序递增，分块多行 INSERT
+     */
+    private int insertSeats(UUID roomId, int rows, int cols, boolean[] present) {
+        int missing = 0;
+        for (boolean p : present) {
+            if (!p) {
+                missing++;
+            }
+        }
+        if (missing == 0) {
+            return 0;
+        }
+        List<UUID> ids = UlidToUuidConverter.generateUuidsFromUlid(missing);
+        List<Seat> chunk = new ArrayList<>(Math.min(missing, SEAT_INSERT_CHUNK));
+        int next = 0;
+        for (int i = 0; i < present.length; i++) {
+            if (present[i]) {
+                continue;
+            }
+            Seat seat = new Seat();
+            seat.setId(ids.get(next++));
+            seat.setRoomId(roomId);
+            seat.setRow(i / cols);
+            seat.setCol(i % cols);
+            chunk.add(seat);
+            if (chunk.size() == SEAT_INSERT_CHUNK) {
+                seatMapper.insertSeats(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            seatMapper.insertSeats(chunk);
+        }
+        return missing;
     }
 
     @Override
     public boolean existsByName(String name) {
         return roomMapper.existsByName(name);
     }
+
+    @Override
+    public RoomAvailability getAvailability(UUID id, OffsetDateTime from, OffsetDateTime to) {
+        // 时段对齐的查询直接由内存位图回答
+        RoomAvailability cached = roomOccupancyStore.availability(id, from, to);
+        if (cached != null) {
+            return cached;
+        }
+        Room room = self.getObject().getRoomById(id);
+        if (room == null) {
+            return null;
+        }
+        int rows = room.getRows();
+        int cols = room.getCols();
+        byte[] seats = new byte[(rows * cols + 7) / 8];
+        byte[] occupied = new byte[seats.length];
+        // [0] 座位数, [1] 已占用座位数
+        int[] counts = new int[2];
+
+        seatMapper.selectSeatOccupancy(id, from, to, ctx -> {
+            SeatOccupancy s = ctx.getResultObject();
+            int r = s.getRow();
+            int c = s.getCol();
+            if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                return; // 查询已排除网格外的座位，这里只防御异常坐标
+            }
+            int i = r * cols + c;
+            seats[i >> 3] |= (byte) (1 << (i & 7));
+            counts[0]++;
+            if (s.isOccupied()) {
+                occupied[i >> 3] |= (byte) (1 << (i & 7));
+                counts[1]++;
+            }
+        });
+        return new RoomAvailability(id, rows, cols, from, to, counts[0], counts[1], seats, occupied);
+    }
 }
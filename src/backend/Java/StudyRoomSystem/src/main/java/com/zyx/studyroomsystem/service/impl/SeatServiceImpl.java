@@ -2,7 +2,12 @@ package com.zyx.studyroomsystem.service.impl;
 
 import com.zyx.studyroomsystem.mapper.SeatMapper;
 import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.room.RoomLayoutChangedEvent;
 import com.zyx.studyroomsystem.service.SeatService;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,34 +17,51 @@ import java.util.UUID;
 public class SeatServiceImpl implements SeatService {
 
     private final SeatMapper seatMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 构造注入
-    public SeatServiceImpl(SeatMapper seatMapper) {
+    public SeatServiceImpl(SeatMapper seatMapper, ApplicationEventPublisher eventPublisher) {
         this.seatMapper = seatMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Cacheable(cacheNames = "seat", key = "#id")
     public Seat getSeatById(UUID id) {
         return seatMapper.selectSeatById(id);
     }
 
     @Override
+    @Cacheable(cacheNames = "roomSeats", key = "#roomId")
     public List<Seat> getSeatsByRoomId(UUID roomId) {
         return seatMapper.selectSeatsByRoomId(roomId);
     }
 
     @Override
+    @CacheEvict(cacheNames = "roomSeats", key = "#seat.roomId")
     public void addSeat(Seat seat) {
         seatMapper.insertSeat(seat);
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(seat.getRoomId(), seat.getId()));
     }
 
+    // 座位可能被移到其他房间，原房间未知，清空整个 roomSeats
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "seat", key = "#seat.id"),
+            @CacheEvict(cacheNames = "roomSeats", allEntries = true)
+    })
     public void updateSeat(Seat seat) {
         seatMapper.updateSeat(seat);
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(seat.getRoomId(), seat.getId()));
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "seat", key = "#id"),
+            @CacheEvict(cacheNames = "roomSeats", allEntries = true)
+    })
     public void deleteSeat(UUID id) {
         seatMapper.deleteSeat(id);
+        eventPublisher.publishEvent(new RoomLayoutChangedEvent(null, id));
     }
 }
@@ -1,27 +1,38 @@
 package com.zyx.studyroomsystem.service.impl;
 
+import com.zyx.studyroomsystem.exception.AuthenticationFailedException;
 import com.zyx.studyroomsystem.exception.UserAlreadyExistsException;
 import com.zyx.studyroomsystem.mapper.UserMapper;
 import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.pojo.UserSummary;
+import com.zyx.studyroomsystem.security.PasswordHasher;
+import com.zyx.studyroomsystem.security.PrincipalCache;
+import com.zyx.studyroomsystem.security.TokenRevocationList;
 import com.zyx.studyroomsystem.service.UserService;
+import com.zyx.studyroomsystem.web.CursorPage;
 import com.zyx.studyroomsystem.web.RegisterDto;
 import com.zyx.studyroomsystem.web.UlidToUuidConverter;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder; // 注入配置类提供的 Bean
+    private final PasswordHasher passwordHasher; // 在独立线程池中执行 BCrypt
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
 
     // 构造注入
-    public UserServiceImpl(UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserMapper userMapper, PasswordHasher passwordHasher,
+                           PrincipalCache principalCache, TokenRevocationList tokenRevocationList) {
         this.userMapper = userMapper;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Override
@@ -39,6 +50,12 @@ public class UserServiceImpl implements UserService {
         return userMapper.selectAllUsers();
     }
 
+    @Override
+    public CursorPage<UserSummary> getUserPage(String role, UUID cursor, int limit) {
+        // 多取一条用于判断是否还有下一页
+        return CursorPage.of(userMapper.selectUserPage(role, cursor, limit + 1), limit, UserSummary::getId);
+    }
+
     @Override
     public void addUser(User user) {
         userMapper.insertUser(user);
@@ -46,22 +63,52 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void updateUser(User user) {
+        User old = userMapper.selectUserById(user.getId());
         userMapper.updateUser(user);
+        // 用户名、角色写在 Token 里，变更后吊销已签发的 Token，要求重新登录
+        if (old != null && (!Objects.equals(old.getRole(), user.getRole())
+                || !Objects.equals(old.getUserName(), user.getUserName()))) {
+            tokenRevocationList.revokeAll(user.getId());
+        }
+        // 用户名、密码、角色都可能变化，按ID失效旧的认证缓存
+        principalCache.evictUser(user.getId());
+        principalCache.evict(user.getUserName());
     }
 
     @Override
     public void deleteUser(UUID id) {
         userMapper.deleteUser(id);
+        tokenRevocationList.revokeAll(id);
+        principalCache.evictUser(id);
     }
 
     @Override
     public boolean validateLogin(String userName, String rawPassword) {
+        try {
+            authenticate(userName, rawPassword);
+            return true;
+        } catch (AuthenticationFailedException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public User authenticate(String userName, String rawPassword) {
         User user = userMapper.selectByUserName(userName);
         if (user == null) {
-            return false;
+            throw new AuthenticationFailedException("用户不存在: " + userName);
+        }
+        // 用 matches() 校验原始密码和数据库里的哈希
+        if (rawPassword == null || !passwordHasher.matches(rawPassword, user.getPassword())) {
+            throw new AuthenticationFailedException("密码错误");
+        }
+        // 调高 BCrypt 强度后，旧哈希在用户登录成功时透明升级
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHasher.encode(rawPassword));
+            userMapper.updatePassword(user.getId(), user.getPassword());
+            principalCache.evictUser(user.getId());
         }
-        // 用 encoder.matches() 校验原始密码和数据库里的哈希
-        return passwordEncoder.matches(rawPassword, user.getPassword());
+        return user;
     }
 
     @Override
@@ -83,7 +130,7 @@ public class UserServiceImpl implements UserService {
         u.setCampusId(dto.campusId());
         u.setEmail(dto.email());
         u.setPhone(dto.phone());
-        u.setPassword(passwordEncoder.encode(dto.password()));
+        u.setPassword(passwordHasher.encode(dto.password()));
         u.setRole(role);
         addUser(u); // 调用底层持久化方法
         return u;
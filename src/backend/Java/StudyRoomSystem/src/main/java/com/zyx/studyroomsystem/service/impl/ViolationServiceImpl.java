@@ -0,0 +1,59 @@
+package com.zyx.studyroomsystem.service.impl;
+
+import com.zyx.studyroomsystem.mapper.ViolationMapper;
+import com.zyx.studyroomsystem.pojo.Violation;
+import com.zyx.studyroomsystem.service.ViolationService;
+import com.zyx.studyroomsystem.violation.ViolationLedger;
+import com.zyx.studyroomsystem.violation.ViolationTypes;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ViolationServiceImpl implements ViolationService {
+
+    private final ViolationMapper violationMapper;
+    private final ViolationLedger violationLedger;
+
+    // 构造注入
+    public ViolationServiceImpl(ViolationMapper violationMapper, ViolationLedger violationLedger) {
+        this.violationMapper = violationMapper;
+        this.violationLedger = violationLedger;
+    }
+
+    @Override
+    public Violation getViolationById(UUID id) {
+        return violationMapper.selectViolationById(id);
+    }
+
+    @Override
+    public List<Violation> getViolationsByUserId(UUID userId) {
+        return violationMapper.selectViolationsByUserId(userId);
+    }
+
+    @Override
+    public int getRecentViolationCount(UUID userId) {
+        return violationLedger.countOf(userId);
+    }
+
+    @Override
+    public OffsetDateTime getBannedUntil(UUID userId) {
+        return violationLedger.bannedUntil(userId);
+    }
+
+    @Override
+    public void addViolation(Violation violation) {
+        if (violation.getId() == null) {
+            violation.setId(UlidToUuidConverter.generateUuidFromUlid());
+        }
+        if (violation.getCreateTime() == null) {
+            violation.setCreateTime(OffsetDateTime.now());
+        }
+        violation.setState(ViolationTypes.STATE_VIOLATION);
+        violationMapper.insertViolation(violation);
+        violationLedger.record(violation.getUserId(), violation.getCreateTime());
+    }
+}
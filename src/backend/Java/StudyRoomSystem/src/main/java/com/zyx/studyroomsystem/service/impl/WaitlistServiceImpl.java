@@ -0,0 +1,81 @@
+package com.zyx.studyroomsystem.service.impl;
+
+import com.zyx.studyroomsystem.exception.InvalidRequestException;
+import com.zyx.studyroomsystem.exception.ResourceConflictException;
+import com.zyx.studyroomsystem.exception.UserBannedException;
+import com.zyx.studyroomsystem.mapper.WaitlistMapper;
+import com.zyx.studyroomsystem.pojo.WaitlistEntry;
+import com.zyx.studyroomsystem.service.WaitlistService;
+import com.zyx.studyroomsystem.violation.ViolationLedger;
+import com.zyx.studyroomsystem.waitlist.WaitlistPromoter;
+import com.zyx.studyroomsystem.waitlist.WaitlistStates;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistMapper waitlistMapper;
+    private final WaitlistPromoter waitlistPromoter;
+    private final ViolationLedger violationLedger;
+
+    // 构造注入
+    public WaitlistServiceImpl(WaitlistMapper waitlistMapper, WaitlistPromoter waitlistPromoter,
+                               ViolationLedger violationLedger) {
+        this.waitlistMapper = waitlistMapper;
+        this.waitlistPromoter = waitlistPromoter;
+        this.violationLedger = violationLedger;
+    }
+
+    @Override
+    public WaitlistEntry getEntryById(UUID id) {
+        return waitlistMapper.selectEntryById(id);
+    }
+
+    @Override
+    public List<WaitlistEntry> getEntriesByUserId(UUID userId) {
+        return waitlistMapper.selectEntriesByUserId(userId);
+    }
+
+    @Override
+    public WaitlistEntry join(WaitlistEntry entry) {
+        if (!entry.getEndTime().isAfter(entry.getStartTime())) {
+            throw new InvalidRequestException("结束时间必须晚于开始时间");
+        }
+        OffsetDateTime bannedUntil = violationLedger.bannedUntil(entry.getUserId());
+        if (bannedUntil != null) {
+            throw new UserBannedException("违规次数过多，暂停预约至 " + bannedUntil);
+        }
+
+        // 手动生成 ULID → UUID，id 顺序即排队顺序
+        entry.setId(UlidToUuidConverter.generateUuidFromUlid());
+        entry.setState(WaitlistStates.WAITING);
+        entry.setCreateTime(OffsetDateTime.now());
+        try {
+            waitlistMapper.insertEntry(entry);
+        } catch (DuplicateKeyException e) {
+            throw new ResourceConflictException("已在该座位该时段的候补队列中", e);
+        }
+
+        // 加入时该时段可能已经空出（或本来就空闲），立即尝试一次
+        waitlistPromoter.promote(entry.getSeatId(), entry.getStartTime(), entry.getEndTime());
+        return waitlistMapper.selectEntryById(entry.getId());
+    }
+
+    @Override
+    public int getPosition(WaitlistEntry entry) {
+        return waitlistMapper.countAhead(entry);
+    }
+
+    @Override
+    public void cancel(UUID id) {
+        if (waitlistMapper.cancel(id) == 0) {
+            throw new ResourceConflictException("候补不存在或已不在排队中: " + id);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.zyx.studyroomsystem.violation;
+
+import com.zyx.studyroomsystem.mapper.BlacklistMapper;
+import com.zyx.studyroomsystem.mapper.ViolationMapper;
+import com.zyx.studyroomsystem.pojo.Blacklist;
+import com.zyx.studyroomsystem.pojo.Violation;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 违规计数与黑名单。
+ *
+ * 每个用户在滚动窗口内的违规时间保存在内存中，每写入一条违规记录就增量更新计数，
+ * 尚未处理的违规达到阈值时写入一条 blacklists 记录并加入内存黑名单；预约时只查内存黑名单，不产生任何查询。
+ * 触发拉黑的违规只标记为已处理，仍留在窗口内，窗口内违规次数（{@link #countOf}）不会因拉黑清零。
+ *
+ * 约定：
+ * - 所有写入 violations 表的路径（单条插入、批量 SQL）写入成功后都要调用 {@link #record}
+ * - 启动时从数据库重建窗口内的计数和仍生效的黑名单
+ * - 计数只在当前节点内存中；多节点部署时以各节点自己观察到的违规为准
+ * - 黑名单记录落库，并按 violation.ban-refresh-interval 定期以 blacklists 表为准整体替换内存黑名单：
+ *   其他节点拉黑、管理员删除或缩短的记录最多滞后这么久生效；只有落库失败的拉黑保留在内存中
+ */
+@Component
+public class ViolationLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(ViolationLedger.class);
+
+    private final ViolationMapper violationMapper;
+    private final BlacklistMapper blacklistMapper;
+    private final ViolationProperties config;
+
+    /** 用户ID → 窗口内的违规 */
+    private final Map<UUID, Tally> counters = new ConcurrentHashMap<>();
+    /** 用户ID → 黑名单到期时间；同步时整体替换 */
+    private volatile Map<UUID, Instant> bannedUntil = new ConcurrentHashMap<>();
+    /** 用户ID → 落库失败、只在本节点生效的黑名单到期时间；同步时保留 */
+    private final Map<UUID, Instant> memoryOnlyBans = new ConcurrentHashMap<>();
+    /** 拉黑写入与黑名单同步互斥，避免同步用查询前的快照覆盖掉刚写入的拉黑 */
+    private final Object banLock = new Object();
+
+    public ViolationLedger(ViolationMapper violationMapper, BlacklistMapper blacklistMapper,
+                           ViolationProperties violationProperties, MeterRegistry meterRegistry) {
+        this.violationMapper = violationMapper;
+        this.blacklistMapper = blacklistMapper;
+        this.config = violationProperties;
+        if (config.threshold() < 1) {
+            throw new IllegalArgumentException("violation.threshold 必须大于 0");
+        }
+        Gauge.builder("violation.blacklist.size", this, ledger -> ledger.bannedUntil.size())
+                .description("内存黑名单中的用户数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 初始化时重建计数与黑名单。
+     * 必须早于定时任务和启动补跑（它们会写入新的违规），否则新违规会被重复计数；
+     * 数据库不可用时只记录日志，之后的违规照常计数。
+     */
+    @PostConstruct
+    public void rebuild() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Violation> recent;
+        List<Blacklist> active;
+        try {
+            recent = violationMapper.selectViolationsSince(now.minus(config.window()));
+            active = blacklistMapper.selectActiveBlacklists(now);
+        } catch (DataAccessException e) {
+            log.warn("违规计数重建失败: {}", e.getMessage());
+            return;
+        }
+        active.forEach(b -> bannedUntil.merge(b.getUserId(), b.getExpireTime().toInstant(), ViolationLedger::later));
+        // 按时间顺序回放：已拉黑或拉黑已到期的用户不会被重复拉黑，只会补上缺失的黑名单记录
+        recent.forEach(v -> count(v.getUserId(), v.getCreateTime().toInstant()));
+        log.info("违规计数重建完成：{} 条窗口内违规，{} 个用户在黑名单中", recent.size(), bannedUntil.size());
+    }
+
+    /**
+     * 违规记录写入后调用：更新该用户的滚动计数，达到阈值时自动拉黑
+     */
+    public void record(UUID userId, OffsetDateTime at) {
+        count(userId, at.toInstant());
+    }
+
+    /**
+     * 用户当前是否在黑名单中（只查内存）
+     */
+    public boolean isBanned(UUID userId) {
+        Instant until = bannedUntil.get(userId);
+        return until != null && until.isAfter(Instant.now());
+    }
+
+    /**
+     * 黑名单到期时间；不在黑名单中时返回 null
+     */
+    public OffsetDateTime bannedUntil(UUID userId) {
+        Instant until = bannedUntil.get(userId);
+        return until != null && until.isAfter(Instant.now()) ? until.atOffset(ZoneOffset.UTC) : null;
+    }
+
+    /**
+     * 用户当前窗口内的违规次数
+     */
+    public int countOf(UUID userId) {
+        int[] size = {0};
+        counters.computeIfPresent(userId, (id, tally) -> {
+            tally.evictExpired(Instant.now().minus(config.window()));
+            size[0] = tally.times.size();
+            return tally.times.isEmpty() ? null : tally;
+        });
+        return size[0];
+    }
+
+    /**
+     * 以 blacklists 表中仍生效的记录（含其他节点写入的记录）替换内存黑名单；
+     * 表中已删除或缩短的黑名单随之解除，落库失败仅在内存中生效的条目原样保留
+     */
+    @Scheduled(fixedDelayString = "${violation.ban-refresh-interval:1m}",
+            initialDelayString = "${violation.ban-refresh-interval:1m}")
+    public void refreshBans() {
+        synchronized (banLock) {
+            Instant now = Instant.now();
+            List<Blacklist> active;
+            try {
+                active = blacklistMapper.selectActiveBlacklists(now.atOffset(ZoneOffset.UTC));
+            } catch (DataAccessException e) {
+                log.warn("黑名单同步失败: {}", e.getMessage());
+                return;
+            }
+            Map<UUID, Instant> synced = new ConcurrentHashMap<>();
+            active.forEach(b -> synced.merge(b.getUserId(), b.getExpireTime().toInstant(), ViolationLedger::later));
+            memoryOnlyBans.values().removeIf(until -> !until.isAfter(now));
+            memoryOnlyBans.forEach((userId, until) -> synced.merge(userId, until, ViolationLedger::later));
+            bannedUntil = synced;
+        }
+    }
+
+    /**
+     * 清理过期的计数与黑名单条目，避免长期不活跃的用户一直占用内存
+     */
+    @Scheduled(fixedDelayString = "${violation.cleanup-interval:1h}")
+    public void cleanUp() {
+        Instant now = Instant.now();
+        bannedUntil.values().removeIf(until -> !until.isAfter(now));
+        memoryOnlyBans.values().removeIf(until -> !until.isAfter(now));
+        for (UUID userId : counters.keySet()) {
+            counters.computeIfPresent(userId, (id, tally) -> {
+                tally.evictExpired(now.minus(config.window()));
+                return tally.times.isEmpty() ? null : tally;
+            });
+        }
+    }
+
+    private void count(UUID userId, Instant at) {
+        // compute 对同一用户串行执行，计数与阈值判断是原子的；Tally 只在 compute 内访问
+        int[] reached = {0};
+        counters.compute(userId, (id, existing) -> {
+            Tally tally = existing != null ? existing : new Tally();
+            tally.times.addLast(at);
+            tally.pending++;
+            tally.evictExpired(Instant.now().minus(config.window()));
+            if (tally.pending >= config.threshold()) {
+                // 达到阈值后这些违规算作已处理，重新累计；已在黑名单中的用户不延长黑名单
+                if (!isBanned(id)) {
+                    reached[0] = tally.times.size();
+                }
+                tally.pending = 0;
+            }
+            return tally.times.isEmpty() ? null : tally;
+        });
+        if (reached[0] > 0) {
+            ban(userId, reached[0], at);
+        }
+    }
+
+    private void ban(UUID userId, int violations, Instant at) {
+        Instant until = at.plus(config.banDuration());
+        if (!until.isAfter(Instant.now())) {
+            return;
+        }
+        Blacklist blacklist = new Blacklist();
+        blacklist.setId(UlidToUuidConverter.generateUuidFromUlid());
+        blacklist.setUserId(userId);
+        blacklist.setType(ViolationTypes.BLACKLIST_AUTO);
+        blacklist.setReason(config.window().toDays() + " 天内违规 " + violations + " 次");
+        blacklist.setCreateTime(at.atOffset(ZoneOffset.UTC));
+        blacklist.setExpireTime(until.atOffset(ZoneOffset.UTC));
+        synchronized (banLock) {
+            try {
+                blacklistMapper.insertBlacklist(blacklist);
+            } catch (DataAccessException e) {
+                // 落库失败时仍在本节点生效，同步黑名单时保留
+                log.warn("黑名单写入失败，用户 {} 仅在内存中拉黑: {}", userId, e.getMessage());
+                memoryOnlyBans.merge(userId, until, ViolationLedger::later);
+            }
+            bannedUntil.merge(userId, until, ViolationLedger::later);
+        }
+        log.info("用户 {} 违规 {} 次，拉黑至 {}", userId, violations, until);
+    }
+
+    /**
+     * 单个用户窗口内的违规时间（从旧到新）；最新的 pending 条尚未触发过拉黑
+     */
+    private static final class Tally {
+        final Deque<Instant> times = new ArrayDeque<>();
+        int pending;
+
+        void evictExpired(Instant from) {
+            while (!times.isEmpty() && !times.peekFirst().isAfter(from)) {
+                times.removeFirst();
+            }
+            pending = Math.min(pending, times.size());
+        }
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
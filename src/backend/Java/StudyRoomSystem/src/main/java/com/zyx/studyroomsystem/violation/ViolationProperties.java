@@ -0,0 +1,19 @@
+package com.zyx.studyroomsystem.violation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 违规与黑名单配置（application.yml 中的 violation.*）
+ *
+ * @param threshold   统计窗口内违规达到该次数即自动拉黑，默认 3
+ * @param window      违规计数的滚动窗口，默认 30 天
+ * @param banDuration 自动拉黑时长，默认 7 天
+ */
+@ConfigurationProperties(prefix = "violation")
+public record ViolationProperties(@DefaultValue("3") int threshold,
+                                  @DefaultValue("30d") Duration window,
+                                  @DefaultValue("7d") Duration banDuration) {
+}
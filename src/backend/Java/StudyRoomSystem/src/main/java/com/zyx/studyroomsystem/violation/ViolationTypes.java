@@ -0,0 +1,24 @@
+package com.zyx.studyroomsystem.violation;
+
+/**
+ * 违规记录常量。
+ * 与 C# 后端写入 violations 表的取值保持一致。
+ */
+public final class ViolationTypes {
+
+    /** violations.state 目前只有这一种取值 */
+    public static final String STATE_VIOLATION = "Violation";
+
+    public static final String TIMEOUT = "超时";
+    public static final String FORCE_CANCEL = "强制取消";
+    public static final String ADMIN = "管理员";
+
+    public static final String NO_CHECK_IN = "未在规定时间签到";
+    public static final String NO_CHECK_OUT = "未在规定时间签退";
+
+    /** 自动拉黑写入 blacklists.type 的取值 */
+    public static final String BLACKLIST_AUTO = "违规";
+
+    private ViolationTypes() {
+    }
+}
@@ -0,0 +1,18 @@
+package com.zyx.studyroomsystem.waitlist;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 候补已转为预约（转正事务已提交），用于通知排队的用户。
+ *
+ * @param entryId   候补条目ID（加入候补时返回给用户）
+ * @param bookingId 新建的预约ID
+ * @param userId    用户ID
+ * @param seatId    座位ID
+ * @param startTime 预约开始时间
+ * @param endTime   预约结束时间
+ */
+public record WaitlistPromotedEvent(UUID entryId, UUID bookingId, UUID userId, UUID seatId,
+                                    OffsetDateTime startTime, OffsetDateTime endTime) {
+}
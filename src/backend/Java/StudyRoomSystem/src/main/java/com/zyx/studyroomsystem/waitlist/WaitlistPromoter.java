@@ -0,0 +1,210 @@
+package com.zyx.studyroomsystem.waitlist;
+
+import com.zyx.studyroomsystem.booking.BookingReleasedEvent;
+import com.zyx.studyroomsystem.booking.BookingStates;
+import com.zyx.studyroomsystem.booking.StripedSeatLock;
+import com.zyx.studyroomsystem.exception.ResourceConflictException;
+import com.zyx.studyroomsystem.exception.UserBannedException;
+import com.zyx.studyroomsystem.mapper.WaitlistMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.pojo.WaitlistEntry;
+import com.zyx.studyroomsystem.service.BookingService;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 候补转正。
+ *
+ * 座位的某段时间被释放时，按加入顺序（FIFO）取出与该时段重叠的排队中候补，逐个尝试转为预约：
+ * 每个候补在一个事务内“领取条目（WAITING → PROMOTED）+ 创建预约”，创建预约走与普通预约相同的冲突检查，
+ * 冲突（该时段仍被其他预约占用）时整个事务回滚，条目继续排队。
+ *
+ * 不使用全局锁：
+ * - 领取是带状态条件的 UPDATE，并发的释放方对同一条目只有一个能成功
+ * - 同一座位同一时段只有一个预约能写入，由预约自身的冲突检查和数据库排他约束保证；
+ *   STRIPED 模式没有排他约束，且分段锁在 addBooking 返回时就已释放（早于本事务提交），
+ *   因此整个“领取 + 创建预约”事务都在该座位的分段锁内执行
+ * - 排在前面的候补一旦转正，与其重叠的后续候补直接跳过，不再逐个尝试
+ *
+ * 转正在释放事务提交后、于独立的虚拟线程上执行，不占用释放方的请求线程，也不会读到未提交的释放；
+ * 转正成功后发布 {@link WaitlistPromotedEvent}，由房间实时推送通知排队的用户。
+ *
+ * 队列持久化在 waitlist_entries 表中，重启后启动时补做停机期间错过的转正。
+ */
+@Component
+public class WaitlistPromoter {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistPromoter.class);
+
+    private final WaitlistMapper waitlistMapper;
+    private final BookingService bookingService;
+    private final TransactionTemplate transactionTemplate;
+    /** 仅 STRIPED 模式下存在 */
+    private final StripedSeatLock stripedSeatLock;
+    private final WaitlistProperties config;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter promotedCounter;
+    /** 每次释放一个虚拟线程：转正会阻塞在数据库和分段锁上 */
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("waitlist-promote-", 0).factory());
+
+    public WaitlistPromoter(WaitlistMapper waitlistMapper, BookingService bookingService,
+                            TransactionTemplate transactionTemplate, ObjectProvider<StripedSeatLock> stripedSeatLock,
+                            WaitlistProperties waitlistProperties, ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry) {
+        this.waitlistMapper = waitlistMapper;
+        this.bookingService = bookingService;
+        this.transactionTemplate = transactionTemplate;
+        this.stripedSeatLock = stripedSeatLock.getIfAvailable();
+        this.config = waitlistProperties;
+        this.eventPublisher = eventPublisher;
+        if (config.maxAttempts() < 1) {
+            throw new IllegalArgumentException("waitlist.max-attempts 必须大于 0");
+        }
+        this.promotedCounter = Counter.builder("waitlist.promoted")
+                .description("候补转为预约的次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 预约释放后尝试转正：释放事务提交后（无事务时立即）交给虚拟线程异步执行
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReleased(BookingReleasedEvent event) {
+        try {
+            executor.execute(() -> {
+                try {
+                    promote(event.seatId(), event.start(), event.end());
+                } catch (DataAccessException e) {
+                    // 不影响释放本身；条目仍在排队，下次释放或重启时再尝试
+                    log.warn("候补转正失败，座位 {}: {}", event.seatId(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 正在停机，启动时补做
+            log.debug("停机中，座位 {} 的候补转正留待重启后补做", event.seatId());
+        }
+    }
+
+    /**
+     * 启动时补做停机期间错过的转正
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<WaitlistEntry> ranges;
+        try {
+            ranges = waitlistMapper.selectWaitingRanges(OffsetDateTime.now());
+        } catch (DataAccessException e) {
+            log.warn("候补队列恢复失败: {}", e.getMessage());
+            return;
+        }
+        int promoted = 0;
+        for (WaitlistEntry range : ranges) {
+            promoted += promote(range.getSeatId(), range.getStartTime(), range.getEndTime());
+        }
+        log.info("候补队列恢复完成：{} 个座位有排队，{} 个候补转正", ranges.size(), promoted);
+    }
+
+    /**
+     * 按加入顺序尝试把座位上与 [start, end) 重叠的候补转为预约
+     *
+     * @return 转正的候补数
+     */
+    public int promote(UUID seatId, OffsetDateTime start, OffsetDateTime end) {
+        List<WaitlistEntry> candidates =
+                waitlistMapper.selectCandidates(seatId, start, end, OffsetDateTime.now(), config.maxAttempts());
+        List<WaitlistEntry> promoted = new ArrayList<>();
+        for (WaitlistEntry candidate : candidates) {
+            // 与已转正的候补重叠，必然冲突
+            if (promoted.stream().anyMatch(p -> overlaps(p, candidate))) {
+                continue;
+            }
+            if (tryPromote(candidate)) {
+                promoted.add(candidate);
+            }
+        }
+        return promoted.size();
+    }
+
+    /**
+     * 时段已开始的候补不再等待
+     */
+    @Scheduled(fixedDelayString = "${waitlist.expire-interval:5m}")
+    public void expireStarted() {
+        try {
+            int expired = waitlistMapper.expireStarted(OffsetDateTime.now());
+            if (expired > 0) {
+                log.info("{} 条候补因时段已开始而过期", expired);
+            }
+        } catch (DataAccessException e) {
+            log.warn("候补过期处理失败: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean tryPromote(WaitlistEntry entry) {
+        Booking booking = new Booking();
+        booking.setId(UlidToUuidConverter.generateUuidFromUlid());
+        booking.setUserId(entry.getUserId());
+        booking.setSeatId(entry.getSeatId());
+        booking.setCreateTime(OffsetDateTime.now());
+        booking.setStartTime(entry.getStartTime());
+        booking.setEndTime(entry.getEndTime());
+        booking.setState(BookingStates.CONFIRMED);
+        try {
+            Boolean claimed = stripedSeatLock == null
+                    ? claimAndBook(entry, booking)
+                    // 分段锁可重入，addBooking 内部再次加锁不会阻塞
+                    : stripedSeatLock.withLock(entry.getSeatId(), () -> claimAndBook(entry, booking));
+            if (Boolean.TRUE.equals(claimed)) {
+                promotedCounter.increment();
+                log.info("候补 {} 已转为预约 {}（用户 {}）", entry.getId(), booking.getId(), entry.getUserId());
+                eventPublisher.publishEvent(new WaitlistPromotedEvent(entry.getId(), booking.getId(),
+                        entry.getUserId(), entry.getSeatId(), entry.getStartTime(), entry.getEndTime()));
+                return true;
+            }
+        } catch (ResourceConflictException | UserBannedException e) {
+            // 仍被占用或用户已被拉黑：事务回滚，条目继续排队
+        }
+        return false;
+    }
+
+    private Boolean claimAndBook(WaitlistEntry entry, Booking booking) {
+        return transactionTemplate.execute(status -> {
+            if (waitlistMapper.claim(entry.getId(), booking.getId()) == 0) {
+                return false;
+            }
+            bookingService.addBooking(booking);
+            return true;
+        });
+    }
+
+    private static boolean overlaps(WaitlistEntry a, WaitlistEntry b) {
+        return a.getStartTime().isBefore(b.getEndTime()) && b.getStartTime().isBefore(a.getEndTime());
+    }
+}
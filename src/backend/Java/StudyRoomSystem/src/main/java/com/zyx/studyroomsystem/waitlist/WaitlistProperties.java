@@ -0,0 +1,13 @@
+package com.zyx.studyroomsystem.waitlist;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 候补队列配置（application.yml 中的 waitlist.*）
+ *
+ * @param maxAttempts 每次释放最多尝试转正的候补数，防止热门座位的长队列拖慢释放方，默认 100
+ */
+@ConfigurationProperties(prefix = "waitlist")
+public record WaitlistProperties(@DefaultValue("100") int maxAttempts) {
+}
@@ -0,0 +1,19 @@
+package com.zyx.studyroomsystem.waitlist;
+
+/**
+ * 候补状态常量。
+ */
+public final class WaitlistStates {
+
+    /** 排队中 */
+    public static final String WAITING = "WAITING";
+    /** 已转为预约 */
+    public static final String PROMOTED = "PROMOTED";
+    /** 用户主动取消 */
+    public static final String CANCELLED = "CANCELLED";
+    /** 时段已开始仍未候补成功 */
+    public static final String EXPIRED = "EXPIRED";
+
+    private WaitlistStates() {
+    }
+}
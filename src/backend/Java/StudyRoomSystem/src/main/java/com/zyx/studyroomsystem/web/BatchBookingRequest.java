@@ -0,0 +1,118 @@
+package com.zyx.studyroomsystem.web;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 批量/周期预约参数：同一用户、同一座位的多个时段。
+ * 时段来自显式列表 slots 和/或按周重复规则 recurrence，两者可以同时提供。
+ */
+public record BatchBookingRequest(
+        @NotNull(message = "用户ID不能为空")
+        UUID userId,
+
+        @NotNull(message = "座位ID不能为空")
+        UUID seatId,
+
+        List<@Valid Slot> slots,
+
+        @Valid
+        Recurrence recurrence,
+
+        // 为空时按 ALL_OR_NOTHING 处理
+        Mode mode
+) {
+
+    /** 单次请求最多的时段数（一学期每个工作日约 100 个） */
+    public static final int MAX_SLOTS = 200;
+
+    /** recurrence 最长跨度 */
+    public static final int MAX_RECURRENCE_DAYS = 366;
+
+    public enum Mode {
+        /** 任一时段失败则全部不预约 */
+        ALL_OR_NOTHING,
+        /** 只预约成功的时段，其余逐个返回失败原因 */
+        BEST_EFFORT
+    }
+
+    public record Slot(
+            @NotNull(message = "开始时间不能为空")
+            OffsetDateTime startTime,
+
+            @NotNull(message = "结束时间不能为空")
+            OffsetDateTime endTime
+    ) {}
+
+    /**
+     * 按周重复：[from, until] 内每个 daysOfWeek（为空时为周一到周五）的 startTime ~ endTime
+     *
+     * @param zone 时区 ID，为空时使用服务器时区
+     */
+    public record Recurrence(
+            @NotNull(message = "开始日期不能为空")
+            LocalDate from,
+
+            @NotNull(message = "结束日期不能为空")
+            LocalDate until,
+
+            Set<DayOfWeek> daysOfWeek,
+
+            @NotNull(message = "每天的开始时间不能为空")
+            LocalTime startTime,
+
+            @NotNull(message = "每天的结束时间不能为空")
+            LocalTime endTime,
+
+            String zone
+    ) {
+
+        private static final Set<DayOfWeek> WEEKDAYS = Set.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY,
+                DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY, DayOfWeek.FRIDAY);
+
+        /**
+         * 展开为具体时段，已经开始的时段不展开（从今天开始的规则不会因为今天早上的时段失败）
+         *
+         * @throws java.time.DateTimeException 时区不合法
+         */
+        List<Slot> expand(OffsetDateTime now) {
+            ZoneId zoneId = zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+            Set<DayOfWeek> days = daysOfWeek == null || daysOfWeek.isEmpty() ? WEEKDAYS : daysOfWeek;
+            List<Slot> result = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(until); date = date.plusDays(1)) {
+                if (!days.contains(date.getDayOfWeek())) {
+                    continue;
+                }
+                OffsetDateTime start = date.atTime(startTime).atZone(zoneId).toOffsetDateTime();
+                if (start.isAfter(now)) {
+                    result.add(new Slot(start, date.atTime(endTime).atZone(zoneId).toOffsetDateTime()));
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 所有待预约的时段：显式 slots 在前，recurrence 展开的时段在后
+     */
+    public List<Slot> resolveSlots(OffsetDateTime now) {
+        List<Slot> result = new ArrayList<>();
+        if (slots != null) {
+            result.addAll(slots);
+        }
+        if (recurrence != null) {
+            result.addAll(recurrence.expand(now));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package com.zyx.studyroomsystem.web;
+
+import com.zyx.studyroomsystem.pojo.Booking;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 批量预约结果，slots 与请求中的时段一一对应（顺序相同）
+ *
+ * @param booked 成功预约的时段数
+ */
+public record BatchBookingResult(int booked, List<SlotResult> slots) {
+
+    public enum Status {
+        /** 预约成功 */
+        BOOKED,
+        /** 与已有预约或本批次中排在前面的时段冲突 */
+        CONFLICT,
+        /** 时间不合法 */
+        INVALID,
+        /** 本身没有问题，但 ALL_OR_NOTHING 模式下其他时段失败，未预约 */
+        SKIPPED
+    }
+
+    /**
+     * @param id      预约ID，仅 BOOKED 时有值
+     * @param message 失败原因，BOOKED 时为 null
+     */
+    public record SlotResult(OffsetDateTime startTime, OffsetDateTime endTime, Status status, UUID id,
+                             String message) {
+
+        public static SlotResult of(Booking booking, Status status, String message) {
+            return new SlotResult(booking.getStartTime(), booking.getEndTime(), status,
+                    status == Status.BOOKED ? booking.getId() : null, message);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.zyx.studyroomsystem.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * 虚拟线程模式（spring.threads.virtual.enabled=true）下注册请求并发上限过滤器。
+ * 平台线程模式由 Tomcat 线程池限制并发，不注册。
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ConcurrencyConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyConfig.class);
+
+    /** 未配置 max-in-flight 时，上限为连接池大小的倍数 */
+    private static final int POOL_MULTIPLIER = 4;
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            ConcurrencyProperties properties, DataSource dataSource, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        int poolSize = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        int maxInFlight = properties.maxInFlight() > 0 ? properties.maxInFlight() : poolSize * POOL_MULTIPLIER;
+        log.info("虚拟线程模式：最多 {} 个请求同时执行（连接池 {}），排队超时 {}",
+                maxInFlight, poolSize, properties.acquireTimeout());
+
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(maxInFlight, properties.acquireTimeout(), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // 在 Spring Security 之前执行，过载时不必先做认证
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
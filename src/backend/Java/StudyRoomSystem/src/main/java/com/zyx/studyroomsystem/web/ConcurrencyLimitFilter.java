@@ -0,0 +1,82 @@
+package com.zyx.studyroomsystem.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用公平信号量限制同时执行的请求数，超时未获得许可时返回 429。
+ *
+ * 许可只在请求的同步处理阶段持有：异步响应（流式导出、实时推送）在处理方法返回后即释放，
+ * 长连接不会占用许可。
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long timeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+        this.timeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+        this.rejectedCounter = Counter.builder("web.concurrency.rejected")
+                .description("排队超时被拒绝（429）的请求数")
+                .register(meterRegistry);
+        Gauge.builder("web.concurrency.in-flight", permits, p -> maxInFlight - p.availablePermits())
+                .description("正在执行的请求数")
+                .register(meterRegistry);
+        Gauge.builder("web.concurrency.queued", permits, Semaphore::getQueueLength)
+                .description("等待许可的请求数")
+                .register(meterRegistry);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            // 业务码 6000 表示请求过多，与 GlobalExceptionHandler 一致
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.fail(6000, "服务繁忙，请稍后重试"));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
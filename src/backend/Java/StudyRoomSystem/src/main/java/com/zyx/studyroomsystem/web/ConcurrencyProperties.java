@@ -0,0 +1,22 @@
+package com.zyx.studyroomsystem.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 虚拟线程模式下的请求并发上限（application.yml 中的 web.concurrency.*）
+ *
+ * 平台线程模式下 Tomcat 线程池（默认 200）本身限制了并发；虚拟线程模式没有这个上限，
+ * 大量请求会同时争抢数据库连接池，在 Hikari 的 connection-timeout 到期后以 500 失败。
+ * 用信号量把同时执行的请求数限制在连接池能承受的范围内，超出的请求公平排队，等待超时后返回 429。
+ *
+ * @param maxInFlight    同时执行的请求数上限；0 表示按连接池大小 × 4 计算
+ *                       （经验值：上限 ≈ 连接池大小 × 请求总耗时 / 其中占用连接的耗时）
+ * @param acquireTimeout 排队等待的最长时间，默认 2s
+ */
+@ConfigurationProperties(prefix = "web.concurrency")
+public record ConcurrencyProperties(@DefaultValue("0") int maxInFlight,
+                                    @DefaultValue("2s") Duration acquireTimeout) {
+}
@@ -0,0 +1,28 @@
+package com.zyx.studyroomsystem.web;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 键集（游标）分页结果。
+ *
+ * 列表按 id 倒序（id 为 ULID 转换的 UUID，即按创建时间从新到旧），
+ * 下一页请求时把 nextCursor 作为 cursor 参数传回；nextCursor 为 null 表示没有更多数据。
+ */
+public record CursorPage<T>(List<T> items, UUID nextCursor) {
+
+    /** 每页最多条数 */
+    public static final int MAX_LIMIT = 100;
+
+    /**
+     * 由多查询一条（limit + 1）的结果构建分页：多出的那一条只用于判断是否还有下一页
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int limit, Function<T, UUID> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)));
+    }
+}
@@ -4,7 +4,9 @@ import com.zyx.studyroomsystem.exception.AuthenticationFailedException;
 import com.zyx.studyroomsystem.exception.InvalidRequestException;
 import com.zyx.studyroomsystem.exception.ResourceConflictException;
 import com.zyx.studyroomsystem.exception.ResourceNotFoundException;
+import com.zyx.studyroomsystem.exception.TooManyRequestsException;
 import com.zyx.studyroomsystem.exception.UserAlreadyExistsException;
+import com.zyx.studyroomsystem.exception.UserBannedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -81,6 +83,17 @@ public class GlobalExceptionHandler {
         return ApiResponse.fail(3000, "权限不足");
     }
 
+    /**
+     * 403 - 用户在黑名单中
+     * 例如：违规次数过多被暂停预约
+     */
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    @ExceptionHandler(UserBannedException.class)
+    public ApiResponse<?> handleBanned(UserBannedException e) {
+        // 业务码 3100 表示用户被列入黑名单
+        return ApiResponse.fail(3100, e.getMessage());
+    }
+
     /**
      * 404 - 资源不存在
      * 例如：查找的用户/文件不存在
@@ -103,6 +116,17 @@ public class GlobalExceptionHandler {
         return ApiResponse.fail(5000, "资源冲突: " + e.getMessage());
     }
 
+    /**
+     * 429 - 请求过多
+     * 例如：登录高峰时密码校验排队已满，快速拒绝而不是占住 Web 线程
+     */
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ApiResponse<?> handleTooManyRequests(TooManyRequestsException e) {
+        // 业务码 6000 表示请求过多
+        return ApiResponse.fail(6000, e.getMessage());
+    }
+
     /**
      * 500 - 服务器内部错误
      * 捕获所有未处理的异常，避免堆栈信息泄露给前端
@@ -1,5 +1,6 @@
 package com.zyx.studyroomsystem.web;
 
+import com.zyx.studyroomsystem.security.AuthProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,7 +9,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class PasswordConfig {
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10); // 加密强度为 10(默认值)，建议不低于 10
+    public PasswordEncoder passwordEncoder(AuthProperties authProperties) {
+        // 加密强度由 auth.password.strength 配置（默认 10），建议不低于 10
+        return new BCryptPasswordEncoder(authProperties.password().strength());
     }
 }
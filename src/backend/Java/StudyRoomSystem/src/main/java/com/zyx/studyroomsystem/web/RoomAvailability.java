@@ -0,0 +1,24 @@
+package com.zyx.studyroomsystem.web;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * 房间在 [from, to) 时间段内的座位占用位图。
+ *
+ * 位图按行优先排列：第 row 行、第 col 列（均从 0 开始，与前端座位网格一致）对应下标 i = row * cols + col，
+ * 第 i 位位于字节 i / 8 的第 i % 8 位（低位在前）。byte[] 在 JSON 中序列化为 Base64 字符串。
+ * - seats：该位置是否存在座位
+ * - occupied：该位置的座位在时间段内是否已有有效预约
+ */
+public record RoomAvailability(
+        UUID roomId,
+        int rows,
+        int cols,
+        OffsetDateTime from,
+        OffsetDateTime to,
+        int seatCount,
+        int occupiedCount,
+        byte[] seats,
+        byte[] occupied
+) {}
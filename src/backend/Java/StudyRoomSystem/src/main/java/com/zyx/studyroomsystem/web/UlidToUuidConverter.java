@@ -1,6 +1,9 @@
 package com.zyx.studyroomsystem.web;
 
 import de.huxhorn.sulky.ulid.ULID;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public class UlidToUuidConverter {
@@ -11,5 +14,17 @@ public class UlidToUuidConverter {
         ULID.Value ulidValue = ulidGen.nextValue();
         return new UUID(ulidValue.getMostSignificantBits(), ulidValue.getLeastSignificantBits());
     }
+
+    // 批量生成：同一毫秒内单调递增（只取一次随机数，之后逐个加一），按生成顺序有序，插入时索引局部性更好
+    public static List<UUID> generateUuidsFromUlid(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        long timestamp = System.currentTimeMillis();
+        ULID.Value ulidValue = null;
+        for (int i = 0; i < count; i++) {
+            ulidValue = ulidValue == null ? ulidGen.nextValue(timestamp) : ulidGen.nextMonotonicValue(ulidValue, timestamp);
+            ids.add(new UUID(ulidValue.getMostSignificantBits(), ulidValue.getLeastSignificantBits()));
+        }
+        return ids;
+    }
 }
 
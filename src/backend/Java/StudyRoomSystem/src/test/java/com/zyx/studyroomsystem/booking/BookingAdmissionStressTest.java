@@ -0,0 +1,119 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.exception.ResourceConflictException;
+import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
+import com.zyx.studyroomsystem.mapper.UserMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 并发预约压力测试：大量并发创建请求打到少数几个座位上，验证最终没有任何重叠的有效预约。
+ *
+ * 需要一个已执行 migrations/001_bookings_seat_period_excl.sql 的 PostgreSQL，默认跳过：
+ * mvn test -Dtest=BookingAdmissionStressTest -Dbooking.stress=true -Dspring.datasource.url=...
+ */
+@EnabledIfSystemProperty(named = "booking.stress", matches = "true")
+@SpringBootTest(properties = "booking.admission.mode=DATABASE")
+class BookingAdmissionStressTest {
+
+    private static final int SEATS = 4;
+    private static final int REQUESTS = 4000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private RoomMapper roomMapper;
+    @Autowired
+    private SeatMapper seatMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookingTestFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new BookingTestFixture(userMapper, roomMapper, seatMapper, jdbcTemplate, SEATS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void concurrentCreatesNeverOverlap() throws InterruptedException {
+        OffsetDateTime base = OffsetDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < REQUESTS; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    bookingService.addBooking(randomBooking(base));
+                    accepted.incrementAndGet();
+                } catch (ResourceConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(5, TimeUnit.MINUTES), "压力测试超时");
+        pool.shutdown();
+
+        assertEquals(0, errors.get(), "除冲突外不应出现其他异常");
+        assertEquals(REQUESTS, accepted.get() + conflicts.get());
+        assertTrue(accepted.get() > 0 && conflicts.get() > 0, "测试数据应同时产生成功与冲突");
+
+        Integer overlaps = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings a JOIN bookings b " +
+                        "ON a.seat_id = b.seat_id AND a.id < b.id " +
+                        "AND tstzrange(a.start_time, a.end_time, '[)') && tstzrange(b.start_time, b.end_time, '[)') " +
+                        "WHERE a.user_id = ? AND b.user_id = ? " +
+                        "AND a.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') " +
+                        "AND b.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')",
+                Integer.class, fixture.user.getId(), fixture.user.getId());
+        assertEquals(0, overlaps, "同一座位不应存在重叠的有效预约");
+    }
+
+    /**
+     * 在未来两天内随机生成 15 分钟粒度、时长 30~120 分钟的预约
+     */
+    private Booking randomBooking(OffsetDateTime base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OffsetDateTime startTime = base.plusMinutes(15L * random.nextInt(4 * 48));
+        return fixture.booking(fixture.seats.get(random.nextInt(SEATS)), startTime,
+                startTime.plusMinutes(30L * (1 + random.nextInt(4))));
+    }
+}
@@ -0,0 +1,128 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
+import com.zyx.studyroomsystem.mapper.UserMapper;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预约创建延迟随座位历史预约数量变化的基准测试。
+ *
+ * 座位依次累积 0 / 1k / 10k / 100k 条历史预约，每个规模下测量 addBooking（STRIPED 模式，走时间范围冲突查询）
+ * 以及旧的全量查询 selectBookingsBySeatId 的中位数延迟，验证新路径的延迟保持平稳。
+ *
+ * 需要已执行 migrations/002_bookings_seat_active_end_idx.sql 的 PostgreSQL，默认跳过：
+ * mvn test -Dtest=BookingHistoryLatencyTest -Dbooking.benchmark=true -Dspring.datasource.url=...
+ */
+@EnabledIfSystemProperty(named = "booking.benchmark", matches = "true")
+@SpringBootTest(properties = "booking.admission.mode=STRIPED")
+class BookingHistoryLatencyTest {
+
+    private static final int[] HISTORY_SIZES = {0, 1_000, 10_000, 100_000};
+    private static final int WARMUP = 50;
+    private static final int SAMPLES = 300;
+    /** 旧的全量查询在 100k 规模下单次就要数百毫秒，只抽样测量 */
+    private static final int SCAN_EVERY = 10;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingMapper bookingMapper;
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private RoomMapper roomMapper;
+    @Autowired
+    private SeatMapper seatMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookingTestFixture fixture;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new BookingTestFixture(userMapper, roomMapper, seatMapper, jdbcTemplate, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixture.cleanUp();
+    }
+
+    @Test
+    void createLatencyStaysFlatAsHistoryGrows() {
+        Seat seat = fixture.seats.get(0);
+        OffsetDateTime next = OffsetDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        double[] createMedians = new double[HISTORY_SIZES.length];
+        int seeded = 0;
+
+        System.out.printf("%10s %16s %16s%n", "history", "create p50 (ms)", "full scan p50 (ms)");
+        for (int level = 0; level < HISTORY_SIZES.length; level++) {
+            seedHistory(seat, seeded, HISTORY_SIZES[level]);
+            seeded = HISTORY_SIZES[level];
+            jdbcTemplate.execute("ANALYZE bookings");
+
+            long[] create = new long[SAMPLES];
+            long[] scan = new long[SAMPLES / SCAN_EVERY];
+            for (int i = -WARMUP; i < SAMPLES; i++) {
+                OffsetDateTime start = next;
+                next = next.plusHours(1);
+
+                long t0 = System.nanoTime();
+                bookingService.addBooking(fixture.booking(seat, start, start.plusHours(1)));
+                long t1 = System.nanoTime();
+                if (i >= 0) {
+                    create[i] = t1 - t0;
+                }
+                if (i >= 0 && i % SCAN_EVERY == 0) {
+                    bookingMapper.selectBookingsBySeatId(seat.getId());
+                    scan[i / SCAN_EVERY] = System.nanoTime() - t1;
+                }
+            }
+            createMedians[level] = median(create);
+            System.out.printf("%10d %16.3f %16.3f%n", HISTORY_SIZES[level], createMedians[level], median(scan));
+        }
+
+        double baseline = createMedians[0];
+        double largest = createMedians[HISTORY_SIZES.length - 1];
+        assertTrue(largest < baseline * 3 + 1.0,
+                "100k 历史预约下创建延迟不应明显增长: " + baseline + "ms -> " + largest + "ms");
+    }
+
+    /**
+     * 在过去的时间里为座位批量补齐历史预约（大部分已签退/取消，少量未释放的已确认预约）
+     */
+    private void seedHistory(Seat seat, int from, int to) {
+        if (to <= from) {
+            return;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO bookings(id, user_id, seat_id, create_time, start_time, end_time, state) " +
+                        "SELECT gen_random_uuid(), ?, ?, now(), " +
+                        "now() - n * interval '2 hour' - interval '1 hour', now() - n * interval '2 hour', " +
+                        "CASE WHEN n % 10 = 0 THEN 'CONFIRMED' WHEN n % 3 = 0 THEN 'CANCELLED' ELSE 'CHECKED_OUT' END " +
+                        "FROM generate_series(?, ?) AS n",
+                fixture.user.getId(), seat.getId(), from + 1, to);
+    }
+
+    private static double median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,177 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.StudyRoomSystemApplication;
+import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
+import com.zyx.studyroomsystem.mapper.UserMapper;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.security.CustomUserDetailsService;
+import com.zyx.studyroomsystem.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 预约高峰负载测试：分别以平台线程模式和虚拟线程模式启动应用，用相同的并发客户端压测，对比吞吐量与 p99 延迟。
+ *
+ * 请求组合模拟选座高峰：60% 查询房间占用位图、20% 查询我的预约、20% 创建预约（随机座位和时段，偶有冲突）。
+ * 两种模式都不应出现 5xx；虚拟线程模式下过载表现为 429（web.concurrency 限流），而不是连接池超时。
+ *
+ * 需要可用的 PostgreSQL，默认跳过：
+ * mvn test -Dtest=BookingRushLoadTest -Dbooking.loadtest=true -Dspring.datasource.url=...
+ * 检查虚拟线程是否被钉住可追加 -DargLine=-Djdk.tracePinnedThreads=short
+ */
+@EnabledIfSystemProperty(named = "booking.loadtest", matches = "true")
+class BookingRushLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("booking.loadtest.clients", 800);
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("booking.loadtest.seconds", 20));
+    private static final int SEATS = 20;
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("%-10s %12s %10s %10s %8s %8s %8s%n",
+                "mode", "req/s", "p50 (ms)", "p99 (ms)", "409", "429", "5xx");
+        for (Result r : new Result[]{platform, virtual}) {
+            System.out.printf("%-10s %12.0f %10.2f %10.2f %8d %8d %8d%n",
+                    r.mode, r.throughput, r.p50, r.p99, r.conflicts, r.rejected, r.serverErrors);
+        }
+        assertEquals(0, platform.serverErrors, "平台线程模式不应出现 5xx");
+        assertEquals(0, virtual.serverErrors, "虚拟线程模式不应出现 5xx");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        // 以命令行参数传入，才能覆盖 application.yml 中的 ${VIRTUAL_THREADS:false}
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(StudyRoomSystemApplication.class)
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--booking.no-show.enabled=false",
+                        "--booking.closeout.enabled=false")) {
+            BookingTestFixture fixture = new BookingTestFixture(ctx.getBean(UserMapper.class),
+                    ctx.getBean(RoomMapper.class), ctx.getBean(SeatMapper.class), ctx.getBean(JdbcTemplate.class), SEATS);
+            try {
+                String token = ctx.getBean(JwtUtil.class).generateToken(
+                        ctx.getBean(CustomUserDetailsService.class).loadUserByUsername(fixture.user.getUserName()));
+                String base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+                return drive(mode, base, token, fixture);
+            } finally {
+                fixture.cleanUp();
+            }
+        }
+    }
+
+    private Result drive(String mode, String base, String token, BookingTestFixture fixture) throws Exception {
+        OffsetDateTime day = OffsetDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        URI availability = URI.create(base + "/api/v1/room/" + fixture.room.getId() + "/availability?from="
+                + day + "&to=" + day.plusDays(1));
+        URI my = URI.create(base + "/api/v1/booking/my?userId=" + fixture.user.getId());
+        URI create = URI.create(base + "/api/v1/booking");
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger serverErrors = new AtomicInteger();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long deadline = measureFrom + DURATION.toNanos();
+
+        // HttpClient 必须在所有客户端线程结束后再关闭，因此放在外层
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        int pick = random.nextInt(10);
+                        HttpRequest.Builder request = HttpRequest.newBuilder()
+                                .timeout(Duration.ofSeconds(30))
+                                .header("Authorization", "Bearer " + token);
+                        if (pick < 6) {
+                            request.uri(availability).GET();
+                        } else if (pick < 8) {
+                            request.uri(my).GET();
+                        } else {
+                            Seat seat = fixture.seats.get(random.nextInt(SEATS));
+                            OffsetDateTime start = day.plusHours(random.nextInt(24 * 30));
+                            request.uri(create)
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(
+                                            "{\"userId\":\"" + fixture.user.getId() + "\",\"seatId\":\"" + seat.getId()
+                                                    + "\",\"createTime\":\"" + OffsetDateTime.now()
+                                                    + "\",\"startTime\":\"" + start
+                                                    + "\",\"endTime\":\"" + start.plusHours(1)
+                                                    + "\",\"state\":\"CONFIRMED\"}"));
+                        }
+                        long t0 = System.nanoTime();
+                        int status;
+                        try {
+                            status = http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            // 客户端超时/连接失败同样计入 5xx
+                            status = 599;
+                        }
+                        long t1 = System.nanoTime();
+                        if (t0 < measureFrom || t1 > deadline) {
+                            continue;
+                        }
+                        latencies.add(t1 - t0);
+                        if (status == 409) {
+                            conflicts.incrementAndGet();
+                        } else if (status == 429) {
+                            rejected.incrementAndGet();
+                        } else if (status >= 500) {
+                            serverErrors.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(mode,
+                sorted.length / (double) DURATION.toSeconds(),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                conflicts.get(), rejected.get(), serverErrors.get());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1_000_000.0;
+    }
+
+    private record Result(String mode, double throughput, double p50, double p99,
+                          int conflicts, int rejected, int serverErrors) {
+        @Override
+        public String toString() {
+            return mode + Arrays.toString(new double[]{throughput, p50, p99});
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
+import com.zyx.studyroomsystem.mapper.UserMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.pojo.Room;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.web.UlidToUuidConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 需要真实数据库的预约测试共用的测试数据：一个用户、一个房间及其座位。
+ * 所有数据都以随机名称创建，{@link #cleanUp()} 时连同产生的预约一起删除。
+ */
+class BookingTestFixture {
+
+    final User user;
+    final Room room;
+    final List<Seat> seats = new ArrayList<>();
+
+    private final UserMapper userMapper;
+    private final RoomMapper roomMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    BookingTestFixture(UserMapper userMapper, RoomMapper roomMapper, SeatMapper seatMapper,
+                       JdbcTemplate jdbcTemplate, int seatCount) {
+        this.userMapper = userMapper;
+        this.roomMapper = roomMapper;
+        this.jdbcTemplate = jdbcTemplate;
+
+        user = new User();
+        user.setId(UlidToUuidConverter.generateUuidFromUlid());
+        user.setCreateTime(OffsetDateTime.now());
+        user.setUserName("test_" + user.getId());
+        user.setDisplayName("test");
+        user.setPassword("x");
+        user.setCampusId(user.getId().toString());
+        user.setPhone(user.getId().toString());
+        user.setRole("USER");
+        userMapper.insertUser(user);
+
+        room = new Room();
+        room.setId(UlidToUuidConverter.generateUuidFromUlid());
+        room.setName("test_" + room.getId());
+        room.setOpenTime(LocalTime.of(0, 0));
+        room.setCloseTime(LocalTime.of(23, 59));
+        room.setRows(1);
+        room.setCols(seatCount);
+        roomMapper.insertRoom(room);
+
+        for (int i = 0; i < seatCount; i++) {
+            Seat seat = new Seat();
+            seat.setId(UlidToUuidConverter.generateUuidFromUlid());
+            seat.setRoomId(room.getId());
+            seat.setRow(0);
+            seat.setCol(i);
+            seatMapper.insertSeat(seat);
+            seats.add(seat);
+        }
+    }
+
+    Booking booking(Seat seat, OffsetDateTime start, OffsetDateTime end) {
+        Booking b = new Booking();
+        b.setId(UlidToUuidConverter.generateUuidFromUlid());
+        b.setUserId(user.getId());
+        b.setSeatId(seat.getId());
+        b.setCreateTime(OffsetDateTime.now());
+        b.setStartTime(start);
+        b.setEndTime(end);
+        b.setState(BookingStates.CONFIRMED);
+        return b;
+    }
+
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE user_id = ?", user.getId());
+        roomMapper.deleteRoom(room.getId());
+        userMapper.deleteUser(user.getId());
+    }
+}
@@ -0,0 +1,191 @@
+package com.zyx.studyroomsystem.booking;
+
+import com.zyx.studyroomsystem.Stubs;
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 座位区间索引：冲突判定、释放与改期。不连接数据库，座位懒加载时返回空列表。
+ */
+class SeatBookingIndexTest {
+
+    /** 明天 0 点（UTC），所有时段都在未来，不会被 prune 掉 */
+    private static final OffsetDateTime DAY =
+            OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS).plusDays(1);
+
+    private final UUID seat = UUID.randomUUID();
+    private final UUID otherSeat = UUID.randomUUID();
+    private SeatBookingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        BookingProperties properties = new BookingProperties(
+                new BookingProperties.Admission(BookingProperties.AdmissionMode.INDEX, 64),
+                new BookingProperties.NoShow(true, Duration.ofMinutes(15), 500),
+                new BookingProperties.Closeout(true, "0 0 22 * * *", "Asia/Shanghai", 1000));
+        index = new SeatBookingIndex(Stubs.of(BookingMapper.class), properties);
+    }
+
+    @Test
+    void overlappingSlotIsRejectedAndAdjacentSlotsAreNot() {
+        assertTrue(index.tryReserve(booking(seat, 10, 12)));
+
+        assertFalse(index.tryReserve(booking(seat, 11, 13)));
+        assertFalse(index.tryReserve(booking(seat, 9, 11)));
+        assertFalse(index.tryReserve(booking(seat, 10, 12)));
+        // 左闭右开，首尾相接不冲突
+        assertTrue(index.tryReserve(booking(seat, 12, 14)));
+        assertTrue(index.tryReserve(booking(seat, 8, 10)));
+        // 其他座位不受影响
+        assertTrue(index.tryReserve(booking(otherSeat, 10, 12)));
+    }
+
+    @Test
+    void shortQueryInsideLongBookingIsDetected() {
+        assertTrue(index.tryReserve(booking(seat, 0, 20)));
+        assertTrue(index.tryReserve(booking(seat, 20, 21)));
+
+        // 扫描下界为 start - 最长时长，开始时间远早于查询的长预约也能找到
+        assertTrue(index.hasOverlap(seat, at(18).toInstant(), at(19).toInstant()));
+        assertFalse(index.tryReserve(booking(seat, 18, 19)));
+    }
+
+    @Test
+    void inactiveBookingDoesNotOccupySeat() {
+        Booking cancelled = booking(seat, 10, 12);
+        cancelled.setState(BookingStates.CANCELLED);
+        assertTrue(index.tryReserve(cancelled));
+
+        assertTrue(index.tryReserve(booking(seat, 10, 12)));
+    }
+
+    @Test
+    void releaseFreesTheSlot() {
+        Booking first = booking(seat, 10, 12);
+        assertTrue(index.tryReserve(first));
+
+        index.release(first.getId());
+
+        assertFalse(index.hasOverlap(seat, at(10).toInstant(), at(12).toInstant()));
+        assertTrue(index.tryReserve(booking(seat, 10, 12)));
+        // 重复释放或释放未知预约无副作用
+        index.release(first.getId());
+        index.release(UUID.randomUUID());
+        assertFalse(index.tryReserve(booking(seat, 11, 12)));
+    }
+
+    @Test
+    void rescheduleIgnoresItsOwnSlotAndFreesTheOldTime() {
+        Booking booking = booking(seat, 10, 12);
+        assertTrue(index.tryReserve(booking));
+
+        AtomicInteger writes = new AtomicInteger();
+        booking.setStartTime(at(11));
+        booking.setEndTime(at(13));
+        assertTrue(index.tryReschedule(booking, writes::incrementAndGet));
+
+        assertEquals(1, writes.get());
+        assertTrue(index.tryReserve(booking(seat, 10, 11)));
+        assertFalse(index.tryReserve(booking(seat, 12, 13)));
+    }
+
+    @Test
+    void conflictingRescheduleSkipsTheWriteAndKeepsTheOldSlot() {
+        Booking first = booking(seat, 10, 12);
+        Booking second = booking(seat, 12, 14);
+        assertTrue(index.tryReserve(first));
+        assertTrue(index.tryReserve(second));
+
+        AtomicInteger writes = new AtomicInteger();
+        second.setStartTime(at(11));
+        second.setEndTime(at(13));
+        assertFalse(index.tryReschedule(second, writes::incrementAndGet));
+
+        assertEquals(0, writes.get());
+        assertFalse(index.tryReserve(booking(seat, 13, 14)));
+    }
+
+    @Test
+    void failedWriteLeavesTheIndexUnchanged() {
+        Booking booking = booking(seat, 10, 12);
+        assertTrue(index.tryReserve(booking));
+
+        booking.setStartTime(at(14));
+        booking.setEndTime(at(16));
+        assertThrows(IllegalStateException.class, () -> index.tryReschedule(booking, () -> {
+            throw new IllegalStateException("写库失败");
+        }));
+
+        assertFalse(index.tryReserve(booking(seat, 10, 12)));
+        assertTrue(index.tryReserve(booking(seat, 14, 16)));
+    }
+
+    @Test
+    void rescheduleToAnotherSeatMovesTheSlot() {
+        Booking booking = booking(seat, 10, 12);
+        assertTrue(index.tryReserve(booking));
+
+        booking.setSeatId(otherSeat);
+        assertTrue(index.tryReschedule(booking, () -> { }));
+
+        assertTrue(index.tryReserve(booking(seat, 10, 12)));
+        assertFalse(index.tryReserve(booking(otherSeat, 11, 12)));
+        // 释放按新座位生效
+        index.release(booking.getId());
+        assertTrue(index.tryReserve(booking(otherSeat, 11, 12)));
+    }
+
+    @Test
+    void reserveAllRollsBackTheBatchOnConflictWhenAllOrNothing() {
+        assertTrue(index.tryReserve(booking(seat, 12, 13)));
+
+        boolean[] conflicts = index.tryReserveAll(List.of(booking(seat, 10, 11), booking(seat, 12, 13),
+                booking(seat, 14, 15)), true);
+
+        assertArrayEquals(new boolean[]{false, true, false}, conflicts);
+        assertTrue(index.tryReserve(booking(seat, 10, 11)));
+        assertTrue(index.tryReserve(booking(seat, 14, 15)));
+    }
+
+    @Test
+    void reserveAllKeepsNonConflictingSlotsInBestEffort() {
+        boolean[] conflicts = index.tryReserveAll(List.of(booking(seat, 10, 12), booking(seat, 11, 13),
+                booking(seat, 12, 14)), false);
+
+        // 批次内部互相重叠也算冲突，排在前面的占用成功
+        assertArrayEquals(new boolean[]{false, true, false}, conflicts);
+        assertFalse(index.tryReserve(booking(seat, 10, 11)));
+        assertFalse(index.tryReserve(booking(seat, 13, 14)));
+    }
+
+    private static Booking booking(UUID seatId, int startHour, int endHour) {
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID());
+        booking.setUserId(UUID.randomUUID());
+        booking.setSeatId(seatId);
+        booking.setStartTime(at(startHour));
+        booking.setEndTime(at(endHour));
+        booking.setState(BookingStates.CONFIRMED);
+        return booking;
+    }
+
+    private static OffsetDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
@@ -0,0 +1,272 @@
+package com.zyx.studyroomsystem.loadtest;
+
+import com.zyx.studyroomsystem.StudyRoomSystemApplication;
+import com.zyx.studyroomsystem.booking.NightlyCloseoutJob;
+import com.zyx.studyroomsystem.pojo.User;
+import com.zyx.studyroomsystem.security.JwtUtil;
+import com.zyx.studyroomsystem.security.SecurityUser;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 端到端负载测试：在独立的负载测试数据库上生成接近生产规模的数据，启动完整应用，依次回放一天中的三个高峰。
+ *
+ * 1. 开学选座高峰：大量用户集中查询热门房间的座位图并抢同一天的座位（POST /booking 冲突返回 409）
+ * 2. 早 8 点签到高峰：待签到的预约集中签到，夹杂座位图查询
+ * 3. 22 点闭馆：强制签退任务分块签退所有 CHECKED_IN 预约，同时仍有用户签退、查询
+ * 每个场景按接口输出吞吐量、p50/p99/p999 延迟和 4xx/5xx 比例，并写入 target/loadtest/*.csv。
+ *
+ * 需要本地 PostgreSQL（连接用户需有 CREATE DATABASE 权限），默认跳过。默认规模（200 个 50×50 房间、
+ * 2 万用户、200 万条历史预约）首次生成需要数分钟，之后规模不变时复用：
+ * mvn test -Dtest=CampusLoadTest -Dloadtest=true
+ *
+ * 常用参数（-D 传入）：
+ * - loadtest.db.url / loadtest.db.username / loadtest.db.password：负载测试数据库，默认 localhost 上的 study_room_loadtest
+ * - loadtest.rooms / loadtest.users / loadtest.bookings：基础数据规模
+ * - loadtest.check-ins / loadtest.closeouts：签到高峰与闭馆场景的预约数
+ * - loadtest.clients / loadtest.seconds / loadtest.warmup-seconds：并发客户端数、每个场景的测量时长与预热时长
+ * - loadtest.app-args：传给应用的额外参数，逗号分隔，如 --spring.threads.virtual.enabled=true,--spring.datasource.hikari.maximum-pool-size=40
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CampusLoadTest {
+
+    private static final Path OUTPUT_DIR = Path.of("target", "loadtest");
+
+    private final int rooms = Integer.getInteger("loadtest.rooms", 200);
+    private final int users = Integer.getInteger("loadtest.users", 20_000);
+    private final long bookings = Long.getLong("loadtest.bookings", 2_000_000L);
+    private final int checkIns = Integer.getInteger("loadtest.check-ins", 20_000);
+    private final int closeouts = Integer.getInteger("loadtest.closeouts", 50_000);
+    private final int clients = Integer.getInteger("loadtest.clients", 500);
+    private final Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 60));
+    private final Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+    /** 5xx 比例上限，超过即判定场景失败 */
+    private final double maxServerErrorRate = Double.parseDouble(System.getProperty("loadtest.max-5xx-rate", "0.01"));
+
+    private LoadTestDatabase db;
+    private ConfigurableApplicationContext ctx;
+    private HttpClient http;
+    private LoadDriver driver;
+    private String base;
+    private List<UUID> userIds;
+    private List<String> tokens;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        db = LoadTestDatabase.create(
+                System.getProperty("loadtest.db.url", "jdbc:postgresql://localhost:5432/study_room_loadtest"),
+                System.getProperty("loadtest.db.username", "postgres"),
+                System.getProperty("loadtest.db.password", "96121221"),
+                Path.of(System.getProperty("loadtest.schema-dir", "../../../database/pgsql/sql")));
+        db.seedBase(rooms, users, bookings);
+        // 场景数据在应用启动前写入，启动时的索引预热、签到截止队列重建都能看到
+        db.seedScenarios(Math.min(checkIns, rooms * LoadTestDatabase.seatsPerRoom()),
+                Math.max(0, Math.min(closeouts, rooms * LoadTestDatabase.seatsPerRoom() - checkIns)));
+
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + db.url,
+                "--spring.datasource.username=" + db.username,
+                "--spring.datasource.password=" + db.password,
+                // 场景自行控制签到和闭馆，关闭后台定时任务，避免干扰测量
+                "--booking.no-show.enabled=false",
+                "--booking.closeout.enabled=false",
+                // 认证不查 users 表，只测量业务接口本身
+                "--auth.mode=STATELESS"));
+        String extra = System.getProperty("loadtest.app-args", "");
+        if (!extra.isBlank()) {
+            args.addAll(List.of(extra.split(",")));
+        }
+        ctx = new SpringApplicationBuilder(StudyRoomSystemApplication.class).run(args.toArray(String[]::new));
+        base = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/api/v1";
+
+        // STATELESS 认证模式下 Token 不查 users 表，直接签发
+        JwtUtil jwtUtil = ctx.getBean(JwtUtil.class);
+        userIds = new ArrayList<>();
+        tokens = new ArrayList<>();
+        for (Map<String, Object> row : db.users(Math.min(users, clients * 4))) {
+            User user = new User();
+            user.setId((UUID) row.get("id"));
+            user.setUserName((String) row.get("user_name"));
+            user.setRole("USER");
+            userIds.add(user.getId());
+            tokens.add(jwtUtil.generateToken(new SecurityUser(user)));
+        }
+
+        http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        driver = new LoadDriver(http);
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (http != null) {
+            http.close();
+        }
+        if (ctx != null) {
+            ctx.close();
+        }
+    }
+
+    /**
+     * 开学选座：60% 查询热门房间下周某天的座位图，30% 抢座（同一天随机座位、随机 2 小时时段），10% 查看我的预约
+     */
+    @Test
+    @Order(1)
+    void semesterOpenRush() throws Exception {
+        List<UUID> hotRooms = db.roomIds(Math.min(rooms, 10));
+        List<UUID> hotSeats = db.seatIds(hotRooms);
+        OffsetDateTime day = OffsetDateTime.now().plusDays(7).truncatedTo(ChronoUnit.DAYS);
+
+        LoadDriver.Report report = driver.run("semester-open-rush", clients, warmup, duration, random -> {
+            int user = random.nextInt(tokens.size());
+            int pick = random.nextInt(10);
+            if (pick < 6) {
+                UUID room = hotRooms.get(random.nextInt(hotRooms.size()));
+                return get("GET /room/{id}/availability", user,
+                        "/room/" + room + "/availability?from=" + day.plusHours(8) + "&to=" + day.plusHours(22));
+            }
+            if (pick < 9) {
+                UUID seat = hotSeats.get(random.nextInt(hotSeats.size()));
+                OffsetDateTime start = day.plusHours(8 + random.nextInt(12));
+                return post("POST /booking", user, "/booking", bookingJson(userIds.get(user), seat, start,
+                        start.plusHours(2)));
+            }
+            return get("GET /booking/my", user, "/booking/my?userId=" + userIds.get(user));
+        });
+        report.print(OUTPUT_DIR);
+        assertServerErrors(report);
+    }
+
+    /**
+     * 早 8 点签到：80% 签到（每条待签到预约只签一次，签完后改为查看我的预约），20% 查询座位图
+     */
+    @Test
+    @Order(2)
+    void morningCheckInSpike() throws Exception {
+        Queue<UUID> pending = new ConcurrentLinkedQueue<>(db.bookingIds("CONFIRMED"));
+        List<UUID> roomIds = db.roomIds(rooms);
+        OffsetDateTime today = OffsetDateTime.now().truncatedTo(ChronoUnit.DAYS);
+
+        LoadDriver.Report report = driver.run("morning-check-in-spike", clients, warmup, duration, random -> {
+            int user = random.nextInt(tokens.size());
+            if (random.nextInt(10) < 8) {
+                UUID bookingId = pending.poll();
+                if (bookingId != null) {
+                    return post("POST /booking/check-in", user, "/booking/check-in",
+                            "{\"bookingId\":\"" + bookingId + "\"}");
+                }
+                return get("GET /booking/my", user, "/booking/my?userId=" + userIds.get(user));
+            }
+            UUID room = roomIds.get(random.nextInt(roomIds.size()));
+            return get("GET /room/{id}/availability", user,
+                    "/room/" + room + "/availability?from=" + today.plusHours(7) + "&to=" + today.plusHours(22));
+        });
+        report.print(OUTPUT_DIR);
+        System.out.printf("剩余未签到预约：%d%n", pending.size());
+        assertServerErrors(report);
+    }
+
+    /**
+     * 22 点闭馆：预热结束时触发强制签退任务，同时 40% 用户主动签退、30% 查询座位图、30% 查看我的预约
+     */
+    @Test
+    @Order(3)
+    void nightlyCloseout() throws Exception {
+        Queue<UUID> checkedIn = new ConcurrentLinkedQueue<>(db.bookingIds("CHECKED_IN"));
+        List<UUID> roomIds = db.roomIds(rooms);
+        OffsetDateTime today = OffsetDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        NightlyCloseoutJob closeoutJob = ctx.getBean(NightlyCloseoutJob.class);
+
+        CompletableFuture<long[]> closeout = CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(warmup.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long begin = System.nanoTime();
+            long rows = closeoutJob.closeOut(OffsetDateTime.now());
+            return new long[]{rows, (System.nanoTime() - begin) / 1_000_000};
+        });
+
+        LoadDriver.Report report = driver.run("nightly-closeout", clients, warmup, duration, random -> {
+            int user = random.nextInt(tokens.size());
+            int pick = random.nextInt(10);
+            if (pick < 4) {
+                UUID bookingId = checkedIn.poll();
+                if (bookingId != null) {
+                    return post("POST /booking/check-out", user, "/booking/check-out",
+                            "{\"bookingId\":\"" + bookingId + "\"}");
+                }
+            }
+            if (pick < 7) {
+                UUID room = roomIds.get(random.nextInt(roomIds.size()));
+                return get("GET /room/{id}/availability", user,
+                        "/room/" + room + "/availability?from=" + today.plusHours(7) + "&to=" + today.plusHours(22));
+            }
+            return get("GET /booking/my", user, "/booking/my?userId=" + userIds.get(user));
+        });
+        long[] result = closeout.join();
+        report.print(OUTPUT_DIR);
+        System.out.printf("强制签退：%d 条，耗时 %d ms%n", result[0], result[1]);
+        assertServerErrors(report);
+    }
+
+    private void assertServerErrors(LoadDriver.Report report) {
+        assertTrue(report.requests() > 0, report.scenario + " 没有完成任何请求");
+        assertTrue(report.serverErrorRate() <= maxServerErrorRate,
+                report.scenario + " 5xx 比例 " + report.serverErrorRate() + " 超过 " + maxServerErrorRate);
+    }
+
+    private LoadDriver.Call get(String endpoint, int user, String path) {
+        return new LoadDriver.Call(endpoint, request(user, path).GET().build());
+    }
+
+    private LoadDriver.Call post(String endpoint, int user, String path, String json) {
+        return new LoadDriver.Call(endpoint, request(user, path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build());
+    }
+
+    private HttpRequest.Builder request(int user, String path) {
+        return HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(user));
+    }
+
+    private static String bookingJson(UUID userId, UUID seatId, OffsetDateTime start, OffsetDateTime end) {
+        return "{\"userId\":\"" + userId + "\",\"seatId\":\"" + seatId
+                + "\",\"createTime\":\"" + OffsetDateTime.now()
+                + "\",\"startTime\":\"" + start + "\",\"endTime\":\"" + end + "\",\"state\":\"CONFIRMED\"}";
+    }
+}
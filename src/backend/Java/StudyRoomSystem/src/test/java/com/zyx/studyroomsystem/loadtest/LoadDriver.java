@@ -0,0 +1,183 @@
+package com.zyx.studyroomsystem.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 闭环负载驱动：clients 个虚拟线程客户端各自循环“生成请求 → 同步发送 → 记录结果”，
+ * 预热期内的请求不计入统计。请求生成函数返回 null 时该客户端提前结束（如待签到的预约已用完）。
+ *
+ * 每个客户端在本地记录耗时，结束后按接口合并，统计吞吐量、p50/p99/p999 延迟与 4xx/5xx 比例。
+ * 连接失败或客户端超时记为 5xx。
+ */
+final class LoadDriver {
+
+    /**
+     * 一次请求
+     *
+     * @param endpoint 统计分组（如 "POST /booking"）
+     */
+    record Call(String endpoint, HttpRequest request) {
+    }
+
+    private final HttpClient http;
+
+    LoadDriver(HttpClient http) {
+        this.http = http;
+    }
+
+    Report run(String scenario, int clients, Duration warmup, Duration duration,
+               Function<ThreadLocalRandom, Call> next) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        List<Map<String, Samples>> perClient = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                Map<String, Samples> local = new HashMap<>();
+                perClient.add(local);
+                executor.execute(() -> drive(next, local, measureFrom, deadline));
+            }
+        }
+        Map<String, Samples> merged = new TreeMap<>();
+        for (Map<String, Samples> local : perClient) {
+            local.forEach((endpoint, samples) -> merged.computeIfAbsent(endpoint, k -> new Samples()).addAll(samples));
+        }
+        return new Report(scenario, duration, merged);
+    }
+
+    private void drive(Function<ThreadLocalRandom, Call> next, Map<String, Samples> local,
+                       long measureFrom, long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Call call = next.apply(random);
+            if (call == null) {
+                return;
+            }
+            long t0 = System.nanoTime();
+            int status;
+            try {
+                status = http.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = 599;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long t1 = System.nanoTime();
+            if (t0 >= measureFrom && t1 <= deadline) {
+                local.computeIfAbsent(call.endpoint(), k -> new Samples()).add(t1 - t0, status);
+            }
+        }
+    }
+
+    /**
+     * 单个接口的原始样本（纳秒耗时）与状态码计数
+     */
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long clientErrors;
+        private long serverErrors;
+
+        void add(long latency, int status) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(size + other.size, nanos.length * 2));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+        }
+    }
+
+    /**
+     * 单个场景的结果
+     */
+    static final class Report {
+        final String scenario;
+        private final Duration duration;
+        private final Map<String, Samples> endpoints;
+
+        Report(String scenario, Duration duration, Map<String, Samples> endpoints) {
+            this.scenario = scenario;
+            this.duration = duration;
+            this.endpoints = endpoints;
+        }
+
+        long requests() {
+            return endpoints.values().stream().mapToLong(s -> s.size).sum();
+        }
+
+        long serverErrors() {
+            return endpoints.values().stream().mapToLong(s -> s.serverErrors).sum();
+        }
+
+        double serverErrorRate() {
+            long requests = requests();
+            return requests == 0 ? 0 : serverErrors() / (double) requests;
+        }
+
+        /**
+         * 打印结果表，并写入 target/loadtest/&lt;scenario&gt;.csv 以便与历次结果对比
+         */
+        void print(Path outputDir) throws IOException {
+            String header = String.format("%-28s %9s %9s %9s %9s %9s %9s %7s %7s",
+                    "endpoint", "requests", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)", "4xx%", "5xx%");
+            StringBuilder table = new StringBuilder("== " + scenario + "\n" + header + "\n");
+            StringBuilder csv = new StringBuilder("endpoint,requests,rps,p50_ms,p99_ms,p999_ms,max_ms,4xx_rate,5xx_rate\n");
+            for (Map.Entry<String, Samples> entry : endpoints.entrySet()) {
+                Samples s = entry.getValue();
+                long[] sorted = Arrays.copyOf(s.nanos, s.size);
+                Arrays.sort(sorted);
+                double rps = s.size / (double) duration.toMillis() * 1000;
+                double p50 = percentile(sorted, 0.50);
+                double p99 = percentile(sorted, 0.99);
+                double p999 = percentile(sorted, 0.999);
+                double max = sorted.length == 0 ? Double.NaN : sorted[sorted.length - 1] / 1_000_000.0;
+                double clientRate = s.size == 0 ? 0 : s.clientErrors / (double) s.size;
+                double serverRate = s.size == 0 ? 0 : s.serverErrors / (double) s.size;
+                table.append(String.format("%-28s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %6.2f%% %6.2f%%%n",
+                        entry.getKey(), s.size, rps, p50, p99, p999, max, clientRate * 100, serverRate * 100));
+                csv.append(String.format("%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.5f,%.5f%n",
+                        entry.getKey(), s.size, rps, p50, p99, p999, max, clientRate, serverRate));
+            }
+            System.out.print(table);
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve(scenario + ".csv"), csv);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.zyx.studyroomsystem.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 负载测试专用数据库：在本地 PostgreSQL 上创建独立的数据库（不影响开发库），
+ * 按 src/database/pgsql/sql 下的建表脚本建表，并用 generate_series 在服务端批量生成数据。
+ *
+ * 基础数据（房间、座位、用户、历史预约）按规模只生成一次，规模不变时直接复用；
+ * 场景数据（今天及以后的预约、违规、候补）每次运行前清空重建，保证结果可重复。
+ */
+final class LoadTestDatabase {
+
+    /** 按依赖顺序执行的建表脚本 */
+    private static final List<String> SCHEMA_FILES = List.of(
+            "users.sql", "rooms.sql", "seats.sql", "bookings.sql",
+            "violations.sql", "blacklists.sql", "waitlist_entries.sql");
+
+    /** bookings 表触发器依赖的函数（与 initdb/database.sql 一致） */
+    private static final String NOTIFY_FUNCTION = """
+            CREATE OR REPLACE FUNCTION public.notify_data_change() RETURNS trigger
+                LANGUAGE plpgsql
+                AS $$DECLARE
+                payload TEXT;
+            BEGIN
+                payload := json_build_object(
+                    'table',TG_TABLE_NAME,
+                    'operation',TG_OP,
+                    'dataId',COALESCE(NEW.id,OLD.id)
+                )::text;
+                PERFORM pg_notify('data_change',payload);
+                RETURN NEW;
+            END$$;
+            """;
+
+    private static final int ROWS = 50;
+    private static final int COLS = 50;
+
+    final String url;
+    final String username;
+    final String password;
+    final JdbcTemplate jdbc;
+
+    private LoadTestDatabase(String url, String username, String password) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.jdbc = new JdbcTemplate(new DriverManagerDataSource(url, username, password));
+    }
+
+    /**
+     * 确保负载测试数据库存在并已建表
+     */
+    static LoadTestDatabase create(String url, String username, String password, Path schemaDir) throws IOException {
+        String name = url.substring(url.lastIndexOf('/') + 1).replaceAll("\\?.*", "");
+        if (!name.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("负载测试数据库名不合法: " + name);
+        }
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(
+                url.substring(0, url.lastIndexOf('/') + 1) + "postgres", username, password));
+        Boolean exists = admin.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_database WHERE datname = ?)",
+                Boolean.class, name);
+        if (!Boolean.TRUE.equals(exists)) {
+            admin.execute("CREATE DATABASE " + name);
+        }
+
+        LoadTestDatabase db = new LoadTestDatabase(url, username, password);
+        db.jdbc.execute(NOTIFY_FUNCTION);
+        for (String file : SCHEMA_FILES) {
+            db.jdbc.execute(Files.readString(schemaDir.resolve(file)));
+        }
+        db.jdbc.execute("CREATE TABLE IF NOT EXISTS loadtest_seed (rooms int, users int, bookings bigint, "
+                + "seeded_at timestamptz)");
+        return db;
+    }
+
+    /**
+     * 生成基础数据：rooms 个 50×50 房间、users 个用户、bookings 条历史预约（今天之前，已签退/已取消）。
+     * 与上次生成的规模相同时跳过。
+     */
+    void seedBase(int rooms, int users, long bookings) {
+        List<Map<String, Object>> seeded = jdbc.queryForList(
+                "SELECT 1 FROM loadtest_seed WHERE rooms = ? AND users = ? AND bookings = ?", rooms, users, bookings);
+        if (!seeded.isEmpty()) {
+            System.out.printf("复用已有基础数据：%d 个房间，%d 个用户，%d 条历史预约%n", rooms, users, bookings);
+            return;
+        }
+        long begin = System.nanoTime();
+        jdbc.execute("TRUNCATE waitlist_entries, violations, blacklists, bookings, seats, rooms, users, loadtest_seed");
+
+        jdbc.update("INSERT INTO rooms(id, name, open_time, close_time, rows, cols) "
+                + "SELECT gen_random_uuid(), 'loadtest-' || lpad(r::text, 4, '0'), '07:00', '22:00', ?, ? "
+                + "FROM generate_series(1, ?) AS r", ROWS, COLS, rooms);
+        jdbc.update("INSERT INTO seats(id, room_id, \"row\", col) "
+                + "SELECT gen_random_uuid(), rm.id, r, c FROM rooms rm, generate_series(1, ?) AS r, generate_series(1, ?) AS c",
+                ROWS, COLS);
+        jdbc.update("INSERT INTO users(id, create_time, user_name, display_name, password, campus_id, phone, role) "
+                + "SELECT gen_random_uuid(), now(), 'lt' || u, 'lt' || u, 'x', 'LT' || u, '199' || lpad(u::text, 8, '0'), 'USER' "
+                + "FROM generate_series(1, ?) AS u", users);
+
+        // 历史预约：第 b 条落在第 (b % 座位数) 个座位上，同一座位的预约每 3 小时一条、时长 2 小时，互不重叠；
+        // 批量导入时关闭逐行 pg_notify 的触发器
+        jdbc.execute("ALTER TABLE bookings DISABLE TRIGGER on_data_change");
+        try {
+            jdbc.update("""
+                    WITH s AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM seats),
+                         u AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users),
+                         c AS (SELECT (SELECT count(*) FROM seats) AS seats, (SELECT count(*) FROM users) AS users),
+                         b AS (SELECT g AS b, date_trunc('day', now()) - (g / c.seats + 1) * interval '3 hour' AS start,
+                                      g % c.seats AS seat_n, (g * 7919) % c.users AS user_n
+                               FROM generate_series(0, ? - 1) AS g, c)
+                    INSERT INTO bookings(id, user_id, seat_id, create_time, start_time, end_time,
+                                         check_in_time, check_out_time, state)
+                    SELECT gen_random_uuid(), u.id, s.id, b.start - interval '1 day', b.start, b.start + interval '2 hour',
+                           CASE WHEN b.b % 10 = 0 THEN NULL ELSE b.start + interval '5 minute' END,
+                           CASE WHEN b.b % 10 = 0 THEN NULL ELSE b.start + interval '2 hour' END,
+                           CASE WHEN b.b % 10 = 0 THEN 'CANCELLED' ELSE 'CHECKED_OUT' END
+                    FROM b JOIN s ON s.n = b.seat_n JOIN u ON u.n = b.user_n
+                    """, bookings);
+        } finally {
+            jdbc.execute("ALTER TABLE bookings ENABLE TRIGGER on_data_change");
+        }
+        jdbc.execute("ANALYZE");
+        jdbc.update("INSERT INTO loadtest_seed VALUES (?, ?, ?, now())", rooms, users, bookings);
+        System.out.printf("基础数据生成完成：%d 个房间，%d 个座位，%d 个用户，%d 条历史预约，耗时 %d s%n",
+                rooms, rooms * ROWS * COLS, users, bookings, (System.nanoTime() - begin) / 1_000_000_000L);
+    }
+
+    /**
+     * 清空上次运行留下的场景数据，生成本次场景需要的预约：
+     * - 前 checkIns 个座位：刚开始、待签到的 CONFIRMED 预约（早 8 点签到高峰）
+     * - 之后 closeouts 个座位：已签到未签退的 CHECKED_IN 预约（22 点闭馆强制签退）
+     */
+    void seedScenarios(int checkIns, int closeouts) {
+        jdbc.execute("TRUNCATE waitlist_entries, violations, blacklists");
+        // 历史预约都在今天 0 点之前结束
+        jdbc.update("DELETE FROM bookings WHERE end_time > date_trunc('day', now())");
+        jdbc.update("""
+                WITH s AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM seats),
+                     u AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users),
+                     c AS (SELECT count(*) AS users FROM users)
+                INSERT INTO bookings(id, user_id, seat_id, create_time, start_time, end_time, check_in_time, state)
+                SELECT gen_random_uuid(), u.id, s.id, now() - interval '1 day',
+                       CASE WHEN s.n < ? THEN now() - interval '1 minute' ELSE now() - interval '2 hour' END,
+                       now() + interval '4 hour',
+                       CASE WHEN s.n < ? THEN NULL ELSE now() - interval '2 hour' END,
+                       CASE WHEN s.n < ? THEN 'CONFIRMED' ELSE 'CHECKED_IN' END
+                FROM s CROSS JOIN c JOIN u ON u.n = s.n % c.users
+                WHERE s.n < ?
+                """, checkIns, checkIns, checkIns, (long) checkIns + closeouts);
+        jdbc.execute("ANALYZE bookings");
+    }
+
+    List<UUID> roomIds(int limit) {
+        return jdbc.queryForList("SELECT id FROM rooms ORDER BY name LIMIT ?", UUID.class, limit);
+    }
+
+    List<UUID> seatIds(List<UUID> roomIds) {
+        return jdbc.queryForList("SELECT id FROM seats WHERE room_id = ANY (?) ORDER BY id", UUID.class,
+                (Object) roomIds.toArray(UUID[]::new));
+    }
+
+    List<Map<String, Object>> users(int limit) {
+        return jdbc.queryForList("SELECT id, user_name FROM users ORDER BY id LIMIT ?", limit);
+    }
+
+    List<UUID> bookingIds(String state) {
+        return jdbc.queryForList("SELECT id FROM bookings WHERE state = ? AND end_time > date_trunc('day', now()) "
+                + "ORDER BY id", UUID.class, state);
+    }
+
+    /** 房间座位数 */
+    static int seatsPerRoom() {
+        return ROWS * COLS;
+    }
+}
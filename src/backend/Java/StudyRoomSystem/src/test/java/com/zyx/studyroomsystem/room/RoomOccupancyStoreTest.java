@@ -0,0 +1,155 @@
+package com.zyx.studyroomsystem.room;
+
+import com.zyx.studyroomsystem.Stubs;
+import com.zyx.studyroomsystem.booking.BookingProperties;
+import com.zyx.studyroomsystem.booking.SeatStateChangedEvent;
+import com.zyx.studyroomsystem.mapper.BookingMapper;
+import com.zyx.studyroomsystem.mapper.RoomMapper;
+import com.zyx.studyroomsystem.mapper.SeatMapper;
+import com.zyx.studyroomsystem.pojo.Booking;
+import com.zyx.studyroomsystem.pojo.Room;
+import com.zyx.studyroomsystem.pojo.Seat;
+import com.zyx.studyroomsystem.web.RoomAvailability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 房间占用位图：座位/占用位的排列、时段对齐与增量更新。不连接数据库，Mapper 返回预设的房间、座位和预约。
+ *
+ * 房间 2 行 3 列、08:00 ~ 12:00 开放，15 分钟一个时段；座位在 (0,0)、(0,1)、(1,2)，另有一个缩小网格后留下的 (2,0)。
+ */
+class RoomOccupancyStoreTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+    private static final LocalDate DATE = LocalDate.now(ZONE).plusDays(1);
+
+    private final UUID roomId = UUID.randomUUID();
+    private final Seat a = seat(0, 0);
+    private final Seat b = seat(0, 1);
+    private final Seat c = seat(1, 2);
+    private final Seat outside = seat(2, 0);
+    /** 房间当天的有效预约，加载时返回 */
+    private final List<Booking> roomBookings = new ArrayList<>();
+    /** 单个座位当天的有效预约，释放后重新读取时返回 */
+    private final List<Booking> seatBookings = new ArrayList<>();
+    private RoomOccupancyStore store;
+
+    @BeforeEach
+    void setUp() {
+        Room room = new Room();
+        room.setId(roomId);
+        room.setRows(2);
+        room.setCols(3);
+        room.setOpenTime(LocalTime.of(8, 0));
+        room.setCloseTime(LocalTime.of(12, 0));
+        RoomMapper roomMapper = Stubs.of(RoomMapper.class, Map.of("selectRoomById", room));
+        SeatMapper seatMapper = Stubs.of(SeatMapper.class, Map.of("selectSeatsByRoomId", List.of(a, b, c, outside)));
+        BookingMapper bookingMapper = Stubs.of(BookingMapper.class, Map.of(
+                "selectActiveBookingsByRoomOverlapping", roomBookings,
+                "selectActiveOverlapping", seatBookings));
+        store = new RoomOccupancyStore(roomMapper, seatMapper, bookingMapper,
+                new RoomOccupancyProperties(true, Duration.ofMinutes(15), ZONE.getId(), 14,
+                        DataSize.ofMegabytes(1), Duration.ofMinutes(10)),
+                new BookingProperties(new BookingProperties.Admission(BookingProperties.AdmissionMode.INDEX, 64),
+                        new BookingProperties.NoShow(true, Duration.ofMinutes(15), 500),
+                        new BookingProperties.Closeout(true, "0 0 22 * * *", ZONE.getId(), 1000)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void seatsAreLaidOutRowMajorFromZero() {
+        RoomAvailability availability = store.availability(roomId, at(8, 0), at(12, 0));
+
+        assertNotNull(availability);
+        // 下标 row * cols + col：(0,0)=0、(0,1)=1、(1,2)=5；网格外的 (2,0) 不登记
+        assertArrayEquals(new byte[]{0b100011}, availability.seats());
+        assertEquals(3, availability.seatCount());
+        assertEquals(0, availability.occupiedCount());
+    }
+
+    @Test
+    void bookingMarksEveryOverlappedSlot() {
+        // 08:10 ~ 08:50 覆盖 08:00、08:15、08:30、08:45 四个时段
+        roomBookings.add(booking(b, at(8, 10), at(8, 50)));
+
+        assertOccupied(new byte[]{0b10}, at(8, 0), at(8, 15));
+        assertOccupied(new byte[]{0b10}, at(8, 45), at(9, 0));
+        assertOccupied(new byte[]{0}, at(9, 0), at(9, 15));
+        assertOccupied(new byte[]{0b10}, at(8, 0), at(12, 0));
+    }
+
+    @Test
+    void onlySlotAlignedQueriesWithinOpeningHoursAreAnswered() {
+        assertNull(store.availability(roomId, at(8, 5), at(8, 15)));
+        assertNull(store.availability(roomId, at(8, 0), at(8, 20)));
+        assertNull(store.availability(roomId, at(7, 45), at(8, 15)));
+        assertNull(store.availability(roomId, at(11, 45), at(12, 15)));
+        assertNotNull(store.availability(roomId, at(11, 45), at(12, 0)));
+        // 超出 horizon-days 的日期由调用方查库
+        OffsetDateTime far = DATE.plusDays(30).atTime(8, 0).atZone(ZONE).toOffsetDateTime();
+        assertNull(store.availability(roomId, far, far.plusMinutes(15)));
+    }
+
+    @Test
+    void bookedAndReleasedEventsUpdateLoadedBitmap() {
+        assertOccupied(new byte[]{0}, at(9, 0), at(9, 30));
+
+        store.onSeatStateChanged(new SeatStateChangedEvent(c.getId(), UUID.randomUUID(),
+                SeatStateChangedEvent.Change.BOOKED, at(9, 0), at(9, 30)));
+        assertOccupied(new byte[]{0b100000}, at(9, 0), at(9, 15));
+        assertOccupied(new byte[]{0}, at(9, 30), at(9, 45));
+
+        // 释放后按数据库重新读取该座位当天的预约：只剩 10:00 ~ 10:15
+        seatBookings.add(booking(c, at(10, 0), at(10, 15)));
+        store.onSeatStateChanged(new SeatStateChangedEvent(c.getId(), UUID.randomUUID(),
+                SeatStateChangedEvent.Change.RELEASED, at(9, 0), at(9, 30)));
+        assertOccupied(new byte[]{0}, at(9, 0), at(9, 30));
+        assertOccupied(new byte[]{0b100000}, at(10, 0), at(10, 15));
+    }
+
+    private void assertOccupied(byte[] expected, OffsetDateTime from, OffsetDateTime to) {
+        RoomAvailability availability = store.availability(roomId, from, to);
+        assertNotNull(availability);
+        assertArrayEquals(expected, availability.occupied());
+        assertEquals(Integer.bitCount(expected[0] & 0xff), availability.occupiedCount());
+    }
+
+    private Seat seat(int row, int col) {
+        Seat seat = new Seat();
+        seat.setId(UUID.randomUUID());
+        seat.setRoomId(roomId);
+        seat.setRow(row);
+        seat.setCol(col);
+        return seat;
+    }
+
+    private static Booking booking(Seat seat, OffsetDateTime start, OffsetDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(UUID.randomUUID());
+        booking.setSeatId(seat.getId());
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        return booking;
+    }
+
+    private static OffsetDateTime at(int hour, int minute) {
+        return DATE.atTime(hour, minute).atZone(ZONE).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,187 @@
+package com.zyx.studyroomsystem.violation;
+
+import com.zyx.studyroomsystem.Stubs;
+import com.zyx.studyroomsystem.mapper.BlacklistMapper;
+import com.zyx.studyroomsystem.mapper.ViolationMapper;
+import com.zyx.studyroomsystem.pojo.Blacklist;
+import com.zyx.studyroomsystem.pojo.Violation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 违规滚动计数、自动拉黑与黑名单同步。不连接数据库：blacklists 表用内存列表代替。
+ *
+ * 配置：30 天内违规 3 次拉黑 7 天。
+ */
+class ViolationLedgerTest {
+
+    private final UUID user = UUID.randomUUID();
+    private final List<Violation> recentViolations = new ArrayList<>();
+    private final FakeBlacklistMapper blacklists = new FakeBlacklistMapper();
+    private ViolationLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new ViolationLedger(
+                Stubs.of(ViolationMapper.class, Map.of("selectViolationsSince", recentViolations)),
+                blacklists, new ViolationProperties(3, Duration.ofDays(30), Duration.ofDays(7)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void reachingThresholdBansOnceAndKeepsTheWindow() {
+        ledger.record(user, now());
+        ledger.record(user, now());
+        assertFalse(ledger.isBanned(user));
+        assertEquals(2, ledger.countOf(user));
+
+        ledger.record(user, now());
+
+        assertTrue(ledger.isBanned(user));
+        assertNotNull(ledger.bannedUntil(user));
+        assertEquals(1, blacklists.inserted.size());
+        assertEquals(user, blacklists.inserted.get(0).getUserId());
+        // 拉黑后窗口内的违规次数不清零
+        assertEquals(3, ledger.countOf(user));
+    }
+
+    @Test
+    void violationsWhileBannedAreCountedButDoNotExtendTheBan() {
+        for (int i = 0; i < 6; i++) {
+            ledger.record(user, now());
+        }
+
+        assertEquals(6, ledger.countOf(user));
+        assertEquals(1, blacklists.inserted.size());
+    }
+
+    @Test
+    void violationsOutsideTheWindowAreNotCounted() {
+        ledger.record(user, now().minusDays(40));
+        ledger.record(user, now().minusDays(31));
+        ledger.record(user, now());
+
+        assertEquals(1, ledger.countOf(user));
+        assertFalse(ledger.isBanned(user));
+        assertEquals(0, ledger.countOf(UUID.randomUUID()));
+    }
+
+    @Test
+    void refreshReplacesBansWithTheTable() {
+        for (int i = 0; i < 3; i++) {
+            ledger.record(user, now());
+        }
+        UUID bannedElsewhere = UUID.randomUUID();
+        blacklists.active.add(blacklist(bannedElsewhere, now().plusDays(1)));
+
+        ledger.refreshBans();
+        assertTrue(ledger.isBanned(user));
+        assertTrue(ledger.isBanned(bannedElsewhere));
+
+        // 管理员删除了记录：同步后解除
+        blacklists.active.clear();
+        ledger.refreshBans();
+        assertFalse(ledger.isBanned(user));
+        assertFalse(ledger.isBanned(bannedElsewhere));
+        assertEquals(3, ledger.countOf(user));
+    }
+
+    @Test
+    void banThatFailedToPersistSurvivesRefresh() {
+        blacklists.failing = true;
+        for (int i = 0; i < 3; i++) {
+            ledger.record(user, now());
+        }
+        assertTrue(ledger.isBanned(user));
+
+        ledger.refreshBans();
+
+        assertTrue(ledger.isBanned(user));
+    }
+
+    @Test
+    void rebuildReplaysTheWindowWithoutDuplicatingExistingBans() {
+        for (int i = 0; i < 3; i++) {
+            recentViolations.add(violation(user, now().minusDays(2).plusHours(i)));
+        }
+        blacklists.active.add(blacklist(user, now().plusDays(5)));
+
+        ledger.rebuild();
+
+        assertTrue(ledger.isBanned(user));
+        assertEquals(3, ledger.countOf(user));
+        assertEquals(0, blacklists.inserted.size());
+    }
+
+    @Test
+    void rebuildAddsMissingBan() {
+        for (int i = 0; i < 3; i++) {
+            recentViolations.add(violation(user, now().minusDays(2).plusHours(i)));
+        }
+
+        ledger.rebuild();
+
+        assertTrue(ledger.isBanned(user));
+        assertEquals(1, blacklists.inserted.size());
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    private static Violation violation(UUID userId, OffsetDateTime at) {
+        Violation violation = new Violation();
+        violation.setId(UUID.randomUUID());
+        violation.setUserId(userId);
+        violation.setCreateTime(at);
+        return violation;
+    }
+
+    private static Blacklist blacklist(UUID userId, OffsetDateTime until) {
+        Blacklist blacklist = new Blacklist();
+        blacklist.setId(UUID.randomUUID());
+        blacklist.setUserId(userId);
+        blacklist.setCreateTime(now());
+        blacklist.setExpireTime(until);
+        return blacklist;
+    }
+
+    /**
+     * 内存中的 blacklists 表：写入成功的记录同时进入仍生效的列表
+     */
+    private static final class FakeBlacklistMapper implements BlacklistMapper {
+        final List<Blacklist> active = new ArrayList<>();
+        final List<Blacklist> inserted = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public List<Blacklist> selectActiveBlacklists(OffsetDateTime now) {
+            return active.stream().filter(b -> b.getExpireTime().isAfter(now)).toList();
+        }
+
+        @Override
+        public int insertBlacklist(Blacklist blacklist) {
+            if (failing) {
+                throw new DataAccessResourceFailureException("数据库不可用");
+            }
+            inserted.add(blacklist);
+            active.add(blacklist);
+            return 1;
+        }
+    }
+}
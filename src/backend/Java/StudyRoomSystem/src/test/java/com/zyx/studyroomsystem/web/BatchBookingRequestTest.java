@@ -0,0 +1,95 @@
+package com.zyx.studyroomsystem.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 按周重复规则的展开与时段合并。
+ */
+class BatchBookingRequestTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Shanghai");
+    /** 2026-03-02 是周一 */
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final OffsetDateTime BEFORE = MONDAY.minusDays(1).atStartOfDay(ZONE).toOffsetDateTime();
+
+    @Test
+    void defaultsToWeekdays() {
+        List<BatchBookingRequest.Slot> slots = recurrence(MONDAY, MONDAY.plusDays(13), null).expand(BEFORE);
+
+        assertEquals(10, slots.size());
+        slots.forEach(slot -> assertFalse(slot.startTime().getDayOfWeek() == DayOfWeek.SATURDAY
+                || slot.startTime().getDayOfWeek() == DayOfWeek.SUNDAY));
+        assertEquals(at(MONDAY, 8), slots.get(0).startTime());
+        assertEquals(at(MONDAY, 10), slots.get(0).endTime());
+        assertEquals(at(MONDAY.plusDays(11), 8), slots.get(9).startTime());
+    }
+
+    @Test
+    void expandsOnlySelectedDaysWithinInclusiveRange() {
+        List<BatchBookingRequest.Slot> slots = recurrence(MONDAY, MONDAY.plusDays(7),
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.SATURDAY)).expand(BEFORE);
+
+        // 两个周一（until 当天包含在内）和一个周六
+        assertEquals(List.of(at(MONDAY, 8), at(MONDAY.plusDays(5), 8), at(MONDAY.plusDays(7), 8)),
+                slots.stream().map(BatchBookingRequest.Slot::startTime).toList());
+    }
+
+    @Test
+    void skipsSlotsThatHaveAlreadyStarted() {
+        // 周二 08:00 之后、当天 10:00 之前：周一和周二的时段都已开始
+        OffsetDateTime now = at(MONDAY.plusDays(1), 9);
+
+        List<BatchBookingRequest.Slot> slots = recurrence(MONDAY, MONDAY.plusDays(4), null).expand(now);
+
+        assertEquals(3, slots.size());
+        assertEquals(at(MONDAY.plusDays(2), 8), slots.get(0).startTime());
+    }
+
+    @Test
+    void usesTheGivenZone() {
+        BatchBookingRequest.Recurrence utc = new BatchBookingRequest.Recurrence(MONDAY, MONDAY, null,
+                LocalTime.of(8, 0), LocalTime.of(10, 0), "UTC");
+
+        assertEquals(MONDAY.atTime(8, 0).atZone(ZoneId.of("UTC")).toOffsetDateTime(),
+                utc.expand(BEFORE).get(0).startTime());
+        BatchBookingRequest.Recurrence invalid = new BatchBookingRequest.Recurrence(MONDAY, MONDAY, null,
+                LocalTime.of(8, 0), LocalTime.of(10, 0), "Mars/Olympus");
+        assertThrows(DateTimeException.class, () -> invalid.expand(BEFORE));
+    }
+
+    @Test
+    void explicitSlotsComeBeforeRecurrence() {
+        BatchBookingRequest.Slot explicit = new BatchBookingRequest.Slot(at(MONDAY, 18), at(MONDAY, 20));
+        BatchBookingRequest request = new BatchBookingRequest(UUID.randomUUID(), UUID.randomUUID(),
+                List.of(explicit), recurrence(MONDAY, MONDAY.plusDays(1), null), null);
+
+        List<BatchBookingRequest.Slot> slots = request.resolveSlots(BEFORE);
+
+        assertEquals(3, slots.size());
+        assertEquals(explicit, slots.get(0));
+        assertEquals(at(MONDAY, 8), slots.get(1).startTime());
+    }
+
+    private static BatchBookingRequest.Recurrence recurrence(LocalDate from, LocalDate until, Set<DayOfWeek> days) {
+        return new BatchBookingRequest.Recurrence(from, until, days, LocalTime.of(8, 0), LocalTime.of(10, 0),
+                ZONE.getId());
+    }
+
+    private static OffsetDateTime at(LocalDate date, int hour) {
+        return date.atTime(hour, 0).atZone(ZONE).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,42 @@
+package com.zyx.studyroomsystem.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 由 limit + 1 条查询结果构建游标分页。
+ */
+class CursorPageTest {
+
+    private final List<UUID> rows = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+    @Test
+    void extraRowYieldsCursorOfLastReturnedItem() {
+        CursorPage<UUID> page = CursorPage.of(rows, 2, Function.identity());
+
+        assertEquals(rows.subList(0, 2), page.items());
+        // 游标是本页最后一条，而不是只用于探测的第 limit + 1 条
+        assertEquals(rows.get(1), page.nextCursor());
+    }
+
+    @Test
+    void noExtraRowMeansLastPage() {
+        CursorPage<UUID> exact = CursorPage.of(rows, 3, Function.identity());
+        assertEquals(rows, exact.items());
+        assertNull(exact.nextCursor());
+
+        CursorPage<UUID> shorter = CursorPage.of(rows, 10, Function.identity());
+        assertEquals(rows, shorter.items());
+        assertNull(shorter.nextCursor());
+
+        CursorPage<UUID> empty = CursorPage.of(List.of(), 10, Function.identity());
+        assertEquals(List.of(), empty.items());
+        assertNull(empty.nextCursor());
+    }
+}
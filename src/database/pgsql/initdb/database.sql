@@ -19,6 +19,20 @@ SET xmloption = content;
 SET client_min_messages = warning;
 SET row_security = off;
 
+--
+-- Name: btree_gist; Type: EXTENSION; Schema: -; Owner: -
+--
+
+CREATE EXTENSION IF NOT EXISTS btree_gist WITH SCHEMA public;
+
+
+--
+-- Name: EXTENSION btree_gist; Type: COMMENT; Schema: -; Owner: 
+--
+
+COMMENT ON EXTENSION btree_gist IS 'support for indexing common datatypes in GiST';
+
+
 --
 -- Name: audit_log(); Type: FUNCTION; Schema: public; Owner: postgres
 --
@@ -224,6 +238,25 @@ CREATE TABLE public.violations (
 
 ALTER TABLE public.violations OWNER TO postgres;
 
+--
+-- Name: waitlist_entries; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.waitlist_entries (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    seat_id uuid NOT NULL,
+    start_time timestamp with time zone NOT NULL,
+    end_time timestamp with time zone NOT NULL,
+    state text NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    booking_id uuid,
+    promote_time timestamp with time zone
+);
+
+
+ALTER TABLE public.waitlist_entries OWNER TO postgres;
+
 --
 -- Data for Name: audit_logs; Type: TABLE DATA; Schema: public; Owner: postgres
 --
@@ -575,6 +608,14 @@ COPY public.violations (id, user_id, state, type, content, booking_id, create_ti
 \.
 
 
+--
+-- Data for Name: waitlist_entries; Type: TABLE DATA; Schema: public; Owner: postgres
+--
+
+COPY public.waitlist_entries (id, user_id, seat_id, start_time, end_time, state, create_time, booking_id, promote_time) FROM stdin;
+\.
+
+
 --
 -- Name: audit_logs audit_logs_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
 --
@@ -599,6 +640,14 @@ ALTER TABLE ONLY public.bookings
     ADD CONSTRAINT bookings_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: bookings bookings_seat_period_excl; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.bookings
+    ADD CONSTRAINT bookings_seat_period_excl EXCLUDE USING gist (seat_id WITH =, tstzrange(start_time, end_time, '[)'::text) WITH &&) WHERE ((state = ANY (ARRAY['PENDING'::text, 'CONFIRMED'::text, 'CHECKED_IN'::text])));
+
+
 --
 -- Name: complaints complaints_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
 --
@@ -671,6 +720,70 @@ ALTER TABLE ONLY public.violations
     ADD CONSTRAINT violations_pkey PRIMARY KEY (id);
 
 
+--
+-- Name: waitlist_entries waitlist_entries_pkey; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.waitlist_entries
+    ADD CONSTRAINT waitlist_entries_pkey PRIMARY KEY (id);
+
+
+--
+-- Name: blacklists_expire_time_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX blacklists_expire_time_idx ON public.blacklists USING btree (expire_time);
+
+
+--
+-- Name: bookings_seat_active_end_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX bookings_seat_active_end_idx ON public.bookings USING btree (seat_id, end_time, start_time) WHERE (state = ANY (ARRAY['PENDING'::text, 'CONFIRMED'::text, 'CHECKED_IN'::text]));
+
+
+--
+-- Name: bookings_user_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX bookings_user_id_idx ON public.bookings USING btree (user_id, id);
+
+
+--
+-- Name: violations_create_time_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX violations_create_time_idx ON public.violations USING btree (create_time);
+
+
+--
+-- Name: violations_user_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX violations_user_id_idx ON public.violations USING btree (user_id, create_time);
+
+
+--
+-- Name: waitlist_entries_seat_waiting_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX waitlist_entries_seat_waiting_idx ON public.waitlist_entries USING btree (seat_id, id) WHERE (state = 'WAITING'::text);
+
+
+--
+-- Name: waitlist_entries_user_id_idx; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX waitlist_entries_user_id_idx ON public.waitlist_entries USING btree (user_id, id);
+
+
+--
+-- Name: waitlist_entries_waiting_uniq; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE UNIQUE INDEX waitlist_entries_waiting_uniq ON public.waitlist_entries USING btree (user_id, seat_id, start_time, end_time) WHERE (state = 'WAITING'::text);
+
+
 --
 -- Name: bookings bookings_audit_log; Type: TRIGGER; Schema: public; Owner: postgres
 --
@@ -792,6 +905,22 @@ ALTER TABLE ONLY public.violations
     ADD CONSTRAINT violations_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.users(id) ON UPDATE CASCADE ON DELETE CASCADE NOT VALID;
 
 
+--
+-- Name: waitlist_entries waitlist_entries_seat_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.waitlist_entries
+    ADD CONSTRAINT waitlist_entries_seat_id_fkey FOREIGN KEY (seat_id) REFERENCES public.seats(id) ON UPDATE CASCADE ON DELETE CASCADE;
+
+
+--
+-- Name: waitlist_entries waitlist_entries_user_id_fkey; Type: FK CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.waitlist_entries
+    ADD CONSTRAINT waitlist_entries_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.users(id) ON UPDATE CASCADE ON DELETE CASCADE;
+
+
 --
 -- PostgreSQL database dump complete
 --
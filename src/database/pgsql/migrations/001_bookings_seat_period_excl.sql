@@ -0,0 +1,22 @@
+-- Migration: 001_bookings_seat_period_excl
+-- 同一座位的有效预约（PENDING / CONFIRMED / CHECKED_IN）时间段不能重叠，由数据库原子保证。
+-- 区间为左闭右开 [start_time, end_time)，首尾相接不算冲突。
+-- 冲突时 PostgreSQL 返回 SQLSTATE 23P01 (exclusion_violation)，后端映射为 ResourceConflictException。
+
+-- uuid 的 = 运算符在 GiST 索引中需要 btree_gist 扩展
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- 执行前先检查历史数据中是否已有重叠的有效预约，有结果时需要先人工处理：
+-- SELECT a.id, b.id, a.seat_id
+-- FROM public.bookings a
+-- JOIN public.bookings b
+--   ON a.seat_id = b.seat_id
+--  AND a.id < b.id
+--  AND tstzrange(a.start_time, a.end_time, '[)') && tstzrange(b.start_time, b.end_time, '[)')
+-- WHERE a.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN')
+--   AND b.state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN');
+
+ALTER TABLE IF EXISTS public.bookings
+    ADD CONSTRAINT bookings_seat_period_excl
+    EXCLUDE USING gist (seat_id WITH =, tstzrange(start_time, end_time, '[)') WITH &&)
+    WHERE (state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN'));
@@ -0,0 +1,12 @@
+-- Migration: 002_bookings_seat_active_end_idx
+-- 为预约冲突查询提供按座位 + 时间的复合索引，只覆盖有效预约（部分索引）。
+--
+-- 冲突查询的谓词为 seat_id = ? AND end_time > :start AND start_time < :end。
+-- 新预约总在未来，end_time > :start 只会命中少量未结束的预约；
+-- 因此 end_time 放在第二列，范围扫描长度与座位的历史预约数量无关，start_time 在索引内过滤。
+-- 同一个索引也用于按座位加载未结束预约（内存区间索引的懒加载）。
+
+-- CONCURRENTLY 不能在事务块内执行，请单独运行本文件
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_seat_active_end_idx
+    ON public.bookings USING btree (seat_id, end_time, start_time)
+    WHERE (state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN'));
@@ -0,0 +1,10 @@
+-- Migration: 003_bookings_user_id_idx
+-- 为“我的预约”键集分页提供 (user_id, id) 复合索引。
+--
+-- 分页查询为 user_id = ? AND id < :cursor ORDER BY id DESC LIMIT n，
+-- id 为 ULID 转换的 UUID，按生成时间有序，每页只需在索引上做一次有界的反向范围扫描，
+-- 与用户的历史预约数量和页码无关。
+
+-- CONCURRENTLY 不能在事务块内执行，请单独运行本文件
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bookings_user_id_idx
+    ON public.bookings USING btree (user_id, id);
@@ -0,0 +1,39 @@
+-- Migration: 004_violations_blacklists
+-- 违规记录与黑名单。
+--
+-- violations 由未签到释放、闭馆强制签退的批量 SQL 和管理员写入；
+-- 启动时按 create_time 取统计窗口内的违规重建每个用户的滚动计数，(create_time) 索引使其只扫描窗口内的行，
+-- 按用户查询违规列表走 (user_id, create_time)。
+-- blacklists 由违规次数达到阈值时自动写入，启动时只取 expire_time 未到期的行。
+
+CREATE TABLE IF NOT EXISTS public.violations
+(
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    state text NOT NULL,
+    type text NOT NULL,
+    content text NOT NULL,
+    booking_id uuid NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    CONSTRAINT violations_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS public.blacklists
+(
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    type text NOT NULL,
+    reason text NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    expire_time timestamp with time zone NOT NULL,
+    CONSTRAINT blacklists_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS violations_create_time_idx
+    ON public.violations USING btree (create_time);
+
+CREATE INDEX IF NOT EXISTS violations_user_id_idx
+    ON public.violations USING btree (user_id, create_time);
+
+CREATE INDEX IF NOT EXISTS blacklists_expire_time_idx
+    ON public.blacklists USING btree (expire_time);
@@ -0,0 +1,36 @@
+-- Migration: 005_waitlist_entries
+-- 座位候补队列。
+--
+-- id 为 ULID 转换的 UUID，按加入时间有序，ORDER BY id 即 FIFO。
+-- 转正时按 seat_id 取排队中且时段重叠的候补：部分索引 waitlist_entries_seat_waiting_idx 只包含 WAITING 的行，
+-- 已转正/取消/过期的历史条目不会拖慢热门座位的转正。
+-- 同一用户对同一座位同一时段只能排队一次。
+
+CREATE TABLE IF NOT EXISTS public.waitlist_entries
+(
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    seat_id uuid NOT NULL,
+    start_time timestamp with time zone NOT NULL,
+    end_time timestamp with time zone NOT NULL,
+    state text NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    booking_id uuid,
+    promote_time timestamp with time zone,
+    CONSTRAINT waitlist_entries_pkey PRIMARY KEY (id),
+    CONSTRAINT waitlist_entries_user_id_fkey FOREIGN KEY (user_id)
+        REFERENCES public.users (id) ON UPDATE CASCADE ON DELETE CASCADE,
+    CONSTRAINT waitlist_entries_seat_id_fkey FOREIGN KEY (seat_id)
+        REFERENCES public.seats (id) ON UPDATE CASCADE ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS waitlist_entries_seat_waiting_idx
+    ON public.waitlist_entries USING btree (seat_id, id)
+    WHERE state = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS waitlist_entries_user_id_idx
+    ON public.waitlist_entries USING btree (user_id, id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS waitlist_entries_waiting_uniq
+    ON public.waitlist_entries USING btree (user_id, seat_id, start_time, end_time)
+    WHERE state = 'WAITING';
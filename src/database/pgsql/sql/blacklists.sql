@@ -0,0 +1,33 @@
+-- Table: public.blacklists
+
+-- DROP TABLE IF EXISTS public.blacklists;
+
+CREATE TABLE IF NOT EXISTS public.blacklists
+(
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    type text COLLATE pg_catalog."default" NOT NULL,
+    reason text COLLATE pg_catalog."default" NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    expire_time timestamp with time zone NOT NULL,
+    CONSTRAINT blacklists_pkey PRIMARY KEY (id),
+    CONSTRAINT blacklists_user_id_fkey FOREIGN KEY (user_id)
+        REFERENCES public.users (id) MATCH SIMPLE
+        ON UPDATE CASCADE
+        ON DELETE CASCADE
+        NOT VALID
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.blacklists
+    OWNER to postgres;
+
+-- Index: blacklists_expire_time_idx
+
+-- DROP INDEX IF EXISTS public.blacklists_expire_time_idx;
+
+CREATE INDEX IF NOT EXISTS blacklists_expire_time_idx
+    ON public.blacklists USING btree
+    (expire_time ASC NULLS LAST)
+    TABLESPACE pg_default;
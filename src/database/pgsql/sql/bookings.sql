@@ -2,6 +2,8 @@
 
 -- DROP TABLE IF EXISTS public.bookings;
 
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 CREATE TABLE IF NOT EXISTS public.bookings
 (
     id uuid NOT NULL,
@@ -23,7 +25,11 @@ CREATE TABLE IF NOT EXISTS public.bookings
         REFERENCES public.users (id) MATCH SIMPLE
         ON UPDATE NO ACTION
         ON DELETE NO ACTION
-        NOT VALID
+        NOT VALID,
+    CONSTRAINT bookings_seat_period_excl EXCLUDE USING gist (
+        seat_id WITH =,
+        tstzrange(start_time, end_time, '[)') WITH &&)
+        WHERE (state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN'))
 )
 
 TABLESPACE pg_default;
@@ -31,6 +37,25 @@ TABLESPACE pg_default;
 ALTER TABLE IF EXISTS public.bookings
     OWNER to postgres;
 
+-- Index: bookings_seat_active_end_idx
+
+-- DROP INDEX IF EXISTS public.bookings_seat_active_end_idx;
+
+CREATE INDEX IF NOT EXISTS bookings_seat_active_end_idx
+    ON public.bookings USING btree
+    (seat_id ASC NULLS LAST, end_time ASC NULLS LAST, start_time ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE state IN ('PENDING', 'CONFIRMED', 'CHECKED_IN');
+
+-- Index: bookings_user_id_idx
+
+-- DROP INDEX IF EXISTS public.bookings_user_id_idx;
+
+CREATE INDEX IF NOT EXISTS bookings_user_id_idx
+    ON public.bookings USING btree
+    (user_id ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default;
+
 -- Trigger: on_data_change
 
 -- DROP TRIGGER IF EXISTS on_data_change ON public.bookings;
@@ -0,0 +1,43 @@
+-- Table: public.violations
+
+-- DROP TABLE IF EXISTS public.violations;
+
+CREATE TABLE IF NOT EXISTS public.violations
+(
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    state text COLLATE pg_catalog."default" NOT NULL,
+    type text COLLATE pg_catalog."default" NOT NULL,
+    content text COLLATE pg_catalog."default" NOT NULL,
+    booking_id uuid NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    CONSTRAINT violations_pkey PRIMARY KEY (id),
+    CONSTRAINT violations_user_id_fkey FOREIGN KEY (user_id)
+        REFERENCES public.users (id) MATCH SIMPLE
+        ON UPDATE CASCADE
+        ON DELETE CASCADE
+        NOT VALID
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.violations
+    OWNER to postgres;
+
+-- Index: violations_create_time_idx
+
+-- DROP INDEX IF EXISTS public.violations_create_time_idx;
+
+CREATE INDEX IF NOT EXISTS violations_create_time_idx
+    ON public.violations USING btree
+    (create_time ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+-- Index: violations_user_id_idx
+
+-- DROP INDEX IF EXISTS public.violations_user_id_idx;
+
+CREATE INDEX IF NOT EXISTS violations_user_id_idx
+    ON public.violations USING btree
+    (user_id ASC NULLS LAST, create_time ASC NULLS LAST)
+    TABLESPACE pg_default;
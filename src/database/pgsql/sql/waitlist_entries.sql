@@ -0,0 +1,59 @@
+-- Table: public.waitlist_entries
+
+-- DROP TABLE IF EXISTS public.waitlist_entries;
+
+CREATE TABLE IF NOT EXISTS public.waitlist_entries
+(
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    seat_id uuid NOT NULL,
+    start_time timestamp with time zone NOT NULL,
+    end_time timestamp with time zone NOT NULL,
+    state text COLLATE pg_catalog."default" NOT NULL,
+    create_time timestamp with time zone NOT NULL,
+    booking_id uuid,
+    promote_time timestamp with time zone,
+    CONSTRAINT waitlist_entries_pkey PRIMARY KEY (id),
+    CONSTRAINT waitlist_entries_seat_id_fkey FOREIGN KEY (seat_id)
+        REFERENCES public.seats (id) MATCH SIMPLE
+        ON UPDATE CASCADE
+        ON DELETE CASCADE,
+    CONSTRAINT waitlist_entries_user_id_fkey FOREIGN KEY (user_id)
+        REFERENCES public.users (id) MATCH SIMPLE
+        ON UPDATE CASCADE
+        ON DELETE CASCADE
+)
+
+TABLESPACE pg_default;
+
+ALTER TABLE IF EXISTS public.waitlist_entries
+    OWNER to postgres;
+
+-- Index: waitlist_entries_seat_waiting_idx
+
+-- DROP INDEX IF EXISTS public.waitlist_entries_seat_waiting_idx;
+
+CREATE INDEX IF NOT EXISTS waitlist_entries_seat_waiting_idx
+    ON public.waitlist_entries USING btree
+    (seat_id ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE state = 'WAITING'::text;
+
+-- Index: waitlist_entries_user_id_idx
+
+-- DROP INDEX IF EXISTS public.waitlist_entries_user_id_idx;
+
+CREATE INDEX IF NOT EXISTS waitlist_entries_user_id_idx
+    ON public.waitlist_entries USING btree
+    (user_id ASC NULLS LAST, id ASC NULLS LAST)
+    TABLESPACE pg_default;
+
+-- Index: waitlist_entries_waiting_uniq
+
+-- DROP INDEX IF EXISTS public.waitlist_entries_waiting_uniq;
+
+CREATE UNIQUE INDEX IF NOT EXISTS waitlist_entries_waiting_uniq
+    ON public.waitlist_entries USING btree
+    (user_id ASC NULLS LAST, seat_id ASC NULLS LAST, start_time ASC NULLS LAST, end_time ASC NULLS LAST)
+    TABLESPACE pg_default
+    WHERE state = 'WAITING'::text;